@@ -7,6 +7,7 @@
  */
 package com.synopsys.integration.blackduck.bdio2;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.lang3.StringUtils;
@@ -22,6 +23,7 @@ import com.synopsys.integration.blackduck.service.request.BlackDuckResponseReque
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
 
 public class Bdio2StreamUploader {
     private static final String HEADER_CONTENT_TYPE = "Content-type";
@@ -33,14 +35,24 @@ public class Bdio2StreamUploader {
     private final IntLogger logger;
     private final BlackDuckPath scanPath;
     private final String contentType;
+    private final boolean gzipUploads;
 
     public Bdio2StreamUploader(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, BlackDuckPath<BlackDuckResponse> scanPath,
         String contentType) {
+        this(blackDuckApiClient, apiDiscovery, logger, scanPath, contentType, false);
+    }
+
+    /**
+     * @param gzipUploads compress the header and appended documents - the empty finish request is never compressed
+     */
+    public Bdio2StreamUploader(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, IntLogger logger, BlackDuckPath<BlackDuckResponse> scanPath,
+        String contentType, boolean gzipUploads) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.logger = logger;
         this.scanPath = scanPath;
         this.contentType = contentType;
+        this.gzipUploads = gzipUploads;
     }
 
     public HttpUrl start(BdioFileContent header) throws IntegrationException {
@@ -48,6 +60,7 @@ public class Bdio2StreamUploader {
         BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
                                                .postString(header.getContent(), ContentType.create(contentType, StandardCharsets.UTF_8))
                                                .addHeader(HEADER_CONTENT_TYPE, contentType)
+                                               .apply(this::gzipIfEnabled)
                                                .buildBlackDuckResponseRequest(url);
         HttpUrl responseUrl = blackDuckApiClient.executePostRequestAndRetrieveURL(request);
         logger.debug(String.format("Starting upload to %s", responseUrl.toString()));
@@ -61,8 +74,9 @@ public class Bdio2StreamUploader {
                                                .addHeader(HEADER_CONTENT_TYPE, contentType)
                                                .addHeader(HEADER_X_BD_MODE, "append")
                                                .addHeader(HEADER_X_BD_DOCUMENT_COUNT, String.valueOf(count))
+                                               .apply(this::gzipIfEnabled)
                                                .buildBlackDuckResponseRequest(url);
-        blackDuckApiClient.execute(request);  // 202 accepted
+        executeAndClose(request);  // 202 accepted
     }
 
     public void finish(HttpUrl url, int count) throws IntegrationException {
@@ -73,7 +87,22 @@ public class Bdio2StreamUploader {
                                                .addHeader(HEADER_X_BD_MODE, "finish")
                                                .addHeader(HEADER_X_BD_DOCUMENT_COUNT, String.valueOf(count))
                                                .buildBlackDuckResponseRequest(url);
-        blackDuckApiClient.execute(request);
+        executeAndClose(request);
+    }
+
+    private void executeAndClose(BlackDuckResponseRequest request) throws IntegrationException {
+        // only the status matters, but the connection is held until the response is closed
+        try (Response response = blackDuckApiClient.execute(request)) {
+            logger.trace(String.format("Upload response status: %d", response.getStatusCode()));
+        } catch (IOException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+    }
+
+    private void gzipIfEnabled(BlackDuckRequestBuilder requestBuilder) {
+        if (gzipUploads) {
+            requestBuilder.gzipBody();
+        }
     }
 
 }
@@ -10,7 +10,6 @@ package com.synopsys.integration.blackduck.codelocation;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
 import com.synopsys.integration.blackduck.api.generated.view.CodeLocationView;
@@ -31,8 +30,11 @@ public class CodeLocationsRetriever {
     was in page 1 when the first GET happened could have been bumped to page 2,
     providing a duplicate across the two GETs. It would be very rare, possibly
     explaining why this is the first time we’ve seen this."
+
+    Reading the distinct responses returns each codelocation once, and
+    re-reads the pages that items could have moved out of when some are
+    removed - the merge below is only a safeguard now.
      */
-    private static final BinaryOperator<String> COLLAPSE_DUPLICATES = (s1, s2) -> s1;
 
     private final BlackDuckApiClient blackDuckApiClient;
 
@@ -41,7 +43,7 @@ public class CodeLocationsRetriever {
     }
 
     public Map<String, String> retrieveCodeLocations(ProjectVersionView projectVersionView, Set<String> codeLocationNames) throws IntegrationException {
-        List<CodeLocationView> codeLocationViews = blackDuckApiClient.getAllResponses(projectVersionView.metaCodelocationsLink());
+        List<CodeLocationView> codeLocationViews = blackDuckApiClient.getAllDistinctResponses(projectVersionView.metaCodelocationsLink());
         return codeLocationViews
                    .stream()
                    .filter(codeLocationView -> codeLocationNames.contains(codeLocationView.getName()))
@@ -26,12 +26,18 @@ public class UploadBatchRunner {
     private final BlackDuckApiClient blackDuckApiClient;
     private final ApiDiscovery apiDiscovery;
     private final ExecutorService executorService;
+    private final boolean gzipUploads;
 
     public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, ExecutorService executorService) {
+        this(logger, blackDuckApiClient, apiDiscovery, executorService, false);
+    }
+
+    public UploadBatchRunner(IntLogger logger, BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, ExecutorService executorService, boolean gzipUploads) {
         this.logger = logger;
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.executorService = executorService;
+        this.gzipUploads = gzipUploads;
     }
 
     public UploadBatchOutput executeUploads(UploadBatch uploadBatch) throws BlackDuckIntegrationException {
@@ -65,7 +71,7 @@ public class UploadBatchRunner {
     private List<UploadCallable> createCallables(UploadBatch uploadBatch) {
         List<UploadCallable> callables = uploadBatch.getUploadTargets()
                                              .stream()
-                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, apiDiscovery, uploadTarget))
+                                             .map(uploadTarget -> new UploadCallable(blackDuckApiClient, apiDiscovery, uploadTarget, gzipUploads))
                                              .collect(Collectors.toList());
 
         return callables;
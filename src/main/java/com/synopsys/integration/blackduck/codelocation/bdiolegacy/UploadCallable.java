@@ -31,13 +31,19 @@ public class UploadCallable implements Callable<UploadOutput> {
     private final UploadTarget uploadTarget;
     private final NameVersion projectAndVersion;
     private final String codeLocationName;
+    private final boolean gzipUpload;
 
     public UploadCallable(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, UploadTarget uploadTarget) {
+        this(blackDuckApiClient, apiDiscovery, uploadTarget, false);
+    }
+
+    public UploadCallable(BlackDuckApiClient blackDuckApiClient, ApiDiscovery apiDiscovery, UploadTarget uploadTarget, boolean gzipUpload) {
         this.blackDuckApiClient = blackDuckApiClient;
         this.apiDiscovery = apiDiscovery;
         this.uploadTarget = uploadTarget;
         this.projectAndVersion = uploadTarget.getProjectAndVersion();
         this.codeLocationName = uploadTarget.getCodeLocationName();
+        this.gzipUpload = gzipUpload;
     }
 
     @Override
@@ -52,9 +58,12 @@ public class UploadCallable implements Callable<UploadOutput> {
             }
 
             UrlSingleResponse<BlackDuckStringResponse> stringResponse = new UrlSingleResponse<>(apiDiscovery.metaBomImportLink().getUrl(), BlackDuckStringResponse.class);
-            BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
-                                                   .postString(jsonPayload, ContentType.create(uploadTarget.getMediaType(), StandardCharsets.UTF_8))
-                                                   .buildBlackDuckResponseRequest(stringResponse.getUrl());
+            BlackDuckRequestBuilder requestBuilder = new BlackDuckRequestBuilder()
+                                                         .postString(jsonPayload, ContentType.create(uploadTarget.getMediaType(), StandardCharsets.UTF_8));
+            if (gzipUpload) {
+                requestBuilder.gzipBody();
+            }
+            BlackDuckResponseRequest request = requestBuilder.buildBlackDuckResponseRequest(stringResponse.getUrl());
 
             try (Response response = blackDuckApiClient.execute(request)) {
                 String responseString = response.getContentString();
@@ -8,6 +8,7 @@
 package com.synopsys.integration.blackduck.configuration;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.StringUtils;
@@ -15,10 +16,23 @@ import org.apache.commons.lang3.StringUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.http.client.ApiTokenBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BearerTokenHolder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckConnectionPool;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.CoalescingHttpClient;
+import com.synopsys.integration.blackduck.http.client.ConnectionPoolSettings;
 import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
 import com.synopsys.integration.blackduck.http.client.CredentialsBlackDuckHttpClient;
 import com.synopsys.integration.blackduck.http.client.cache.CachingHttpClient;
+import com.synopsys.integration.blackduck.http.client.cache.DiskCachingHttpClient;
+import com.synopsys.integration.blackduck.http.client.cache.DiskResponseCache;
+import com.synopsys.integration.blackduck.http.client.cache.NotFoundCache;
+import com.synopsys.integration.blackduck.http.client.cache.ResponseCache;
+import com.synopsys.integration.blackduck.http.client.hedge.HedgingHttpClient;
+import com.synopsys.integration.blackduck.http.client.limit.AdaptiveConcurrencyLimiter;
+import com.synopsys.integration.blackduck.http.client.limit.RateLimitingHttpClient;
+import com.synopsys.integration.blackduck.http.client.retry.Retrier;
+import com.synopsys.integration.blackduck.http.client.retry.RetryingHttpClient;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.Buildable;
 import com.synopsys.integration.log.IntLogger;
@@ -51,22 +65,37 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
     private final AuthenticationSupport authenticationSupport;
     private final CookieHeaderParser cookieHeaderParser;
     private final ExecutorService executorService;
+    private final ConnectionPoolSettings connectionPoolSettings;
+    private BlackDuckConnectionPool connectionPool;
+    private BearerTokenHolder bearerTokenHolder;
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, Credentials credentials, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
         AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService) {
-        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser, executorService, credentials,
+        this(url, solutionDetails, timeoutSeconds, credentials, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser, executorService, null);
+    }
+
+    BlackDuckServerConfig(
+        HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, Credentials credentials, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
+        AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService, ConnectionPoolSettings connectionPoolSettings) {
+        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser, executorService, connectionPoolSettings, credentials,
             null);
     }
 
     BlackDuckServerConfig(
         HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, String apiToken, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
         AuthenticationSupport authenticationSupport, ExecutorService executorService) {
-        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, null, executorService, null, apiToken);
+        this(url, solutionDetails, timeoutSeconds, apiToken, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, executorService, null);
+    }
+
+    BlackDuckServerConfig(
+        HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, String apiToken, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson, ObjectMapper objectMapper,
+        AuthenticationSupport authenticationSupport, ExecutorService executorService, ConnectionPoolSettings connectionPoolSettings) {
+        this(url, solutionDetails, timeoutSeconds, proxyInfo, alwaysTrustServerCertificate, intEnvironmentVariables, gson, objectMapper, authenticationSupport, null, executorService, connectionPoolSettings, null, apiToken);
     }
 
     private BlackDuckServerConfig(HttpUrl url, NameVersion solutionDetails, int timeoutSeconds, ProxyInfo proxyInfo, boolean alwaysTrustServerCertificate, IntEnvironmentVariables intEnvironmentVariables, Gson gson,
-        ObjectMapper objectMapper, AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService, Credentials credentials,
+        ObjectMapper objectMapper, AuthenticationSupport authenticationSupport, CookieHeaderParser cookieHeaderParser, ExecutorService executorService, ConnectionPoolSettings connectionPoolSettings, Credentials credentials,
         String apiToken) {
         blackDuckUrl = url;
         this.solutionDetails = solutionDetails;
@@ -81,6 +110,7 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         this.authenticationSupport = authenticationSupport;
         this.cookieHeaderParser = cookieHeaderParser;
         this.executorService = executorService;
+        this.connectionPoolSettings = connectionPoolSettings;
     }
 
     public boolean shouldUseProxyForBlackDuck() {
@@ -175,6 +205,13 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         return new BlackDuckServicesFactory(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper);
     }
 
+    /**
+     * Views read through this factory do not keep their json - see BlackDuckServicesFactory.
+     */
+    public BlackDuckServicesFactory createLeanBlackDuckServicesFactory(BlackDuckHttpClient blackDuckHttpClient, IntLogger logger) {
+        return new BlackDuckServicesFactory(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper, true);
+    }
+
     public BlackDuckHttpClient createBlackDuckHttpClient(IntLogger logger) {
         if (usingApiToken()) {
             return createApiTokenBlackDuckHttpClient(logger);
@@ -184,17 +221,105 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
     }
 
     public CachingHttpClient createCacheHttpClient(IntLogger logger) {
-        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        BlackDuckHttpClient blackDuckHttpClient = createCoalescingHttpClient(logger);
         return new CachingHttpClient(blackDuckHttpClient);
     }
 
+    public CachingHttpClient createCacheHttpClient(IntLogger logger, ResponseCache responseCache) {
+        BlackDuckHttpClient blackDuckHttpClient = createCoalescingHttpClient(logger);
+        return new CachingHttpClient(blackDuckHttpClient, responseCache);
+    }
+
+    public CachingHttpClient createCacheHttpClient(IntLogger logger, ResponseCache responseCache, NotFoundCache notFoundCache) {
+        BlackDuckHttpClient blackDuckHttpClient = createCoalescingHttpClient(logger);
+        return new CachingHttpClient(blackDuckHttpClient, responseCache, notFoundCache);
+    }
+
+    public CoalescingHttpClient createCoalescingHttpClient(IntLogger logger) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new CoalescingHttpClient(blackDuckHttpClient);
+    }
+
+    public RateLimitingHttpClient createRateLimitingHttpClient(IntLogger logger) {
+        return createRateLimitingHttpClient(logger, new AdaptiveConcurrencyLimiter());
+    }
+
+    /**
+     * The limiter can be shared by several clients talking to the same Black Duck server.
+     */
+    public RateLimitingHttpClient createRateLimitingHttpClient(IntLogger logger, AdaptiveConcurrencyLimiter limiter) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new RateLimitingHttpClient(blackDuckHttpClient, limiter, RateLimitingHttpClient.DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public RetryingHttpClient createRetryingHttpClient(IntLogger logger) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new RetryingHttpClient(blackDuckHttpClient);
+    }
+
+    public RetryingHttpClient createRetryingHttpClient(IntLogger logger, Retrier retrier) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new RetryingHttpClient(blackDuckHttpClient, retrier);
+    }
+
+    /**
+     * The executor needs at least two threads per concurrent request for any
+     * request to be hedged. A losing copy that is already in flight is not
+     * aborted, so it holds its thread and connection until it is answered.
+     */
+    public HedgingHttpClient createHedgingHttpClient(IntLogger logger, Executor executor) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new HedgingHttpClient(blackDuckHttpClient, executor);
+    }
+
+    public DiskCachingHttpClient createDiskCacheHttpClient(IntLogger logger, DiskResponseCache diskResponseCache) {
+        BlackDuckHttpClient blackDuckHttpClient = createBlackDuckHttpClient(logger);
+        return new DiskCachingHttpClient(blackDuckHttpClient, diskResponseCache);
+    }
+
     public CredentialsBlackDuckHttpClient createCredentialsBlackDuckHttpClient(IntLogger logger) {
         return new CredentialsBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getCredentials().orElse(null),
-            cookieHeaderParser);
+            cookieHeaderParser, getOrCreateConnectionPool(), getOrCreateBearerTokenHolder());
     }
 
     public ApiTokenBlackDuckHttpClient createApiTokenBlackDuckHttpClient(IntLogger logger) {
-        return new ApiTokenBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getApiToken().orElse(null));
+        return new ApiTokenBlackDuckHttpClient(logger, gson, getTimeout(), isAlwaysTrustServerCertificate(), getProxyInfo(), getBlackDuckUrl(), getSolutionDetails(), authenticationSupport, getApiToken().orElse(null),
+            getOrCreateConnectionPool(), getOrCreateBearerTokenHolder());
+    }
+
+    /**
+     * Every client created from this config shares one pool, so connections
+     * are reused between them too - the pool only exists once such a client
+     * does, and lasts until shutdown.
+     */
+    private synchronized BlackDuckConnectionPool getOrCreateConnectionPool() {
+        if (null == connectionPool && null != connectionPoolSettings) {
+            connectionPool = new BlackDuckConnectionPool(connectionPoolSettings, alwaysTrustServerCertificate);
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Closes the connections pooled for the clients created from this config.
+     * Those clients can't be used afterwards, but clients created later get a
+     * new pool.
+     */
+    public synchronized void shutdown() {
+        if (null != connectionPool) {
+            connectionPool.shutdown();
+            connectionPool = null;
+        }
+    }
+
+    /**
+     * Every client created from this config shares one token, so the holder
+     * (and its refresh thread) only exists once such a client does.
+     */
+    private synchronized BearerTokenHolder getOrCreateBearerTokenHolder() {
+        if (null == bearerTokenHolder) {
+            bearerTokenHolder = new BearerTokenHolder();
+        }
+        return bearerTokenHolder;
     }
 
     public boolean usingApiToken() {
@@ -209,6 +334,14 @@ public class BlackDuckServerConfig extends Stringable implements Buildable {
         return solutionDetails;
     }
 
+    public Optional<ConnectionPoolSettings> getConnectionPoolSettings() {
+        return Optional.ofNullable(connectionPoolSettings);
+    }
+
+    public synchronized Optional<BlackDuckConnectionPool> getConnectionPool() {
+        return Optional.ofNullable(connectionPool);
+    }
+
     public Optional<Credentials> getCredentials() {
         return Optional.ofNullable(credentials);
     }
@@ -7,6 +7,7 @@
  */
 package com.synopsys.integration.blackduck.configuration;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
@@ -18,6 +19,7 @@ import org.apache.commons.lang3.math.NumberUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.http.client.ConnectionPoolSettings;
 import com.synopsys.integration.blackduck.http.client.CookieHeaderParser;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.builder.BuilderProperties;
@@ -53,6 +55,10 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
     public static final BuilderPropertyKey PROXY_NTLM_DOMAIN_KEY = new BuilderPropertyKey("BLACKDUCK_PROXY_NTLM_DOMAIN");
     public static final BuilderPropertyKey PROXY_NTLM_WORKSTATION_KEY = new BuilderPropertyKey("BLACKDUCK_PROXY_NTLM_WORKSTATION");
     public static final BuilderPropertyKey TRUST_CERT_KEY = new BuilderPropertyKey("BLACKDUCK_TRUST_CERT");
+    public static final BuilderPropertyKey MAX_CONNECTIONS_KEY = new BuilderPropertyKey("BLACKDUCK_MAX_CONNECTIONS");
+    public static final BuilderPropertyKey MAX_CONNECTIONS_PER_ROUTE_KEY = new BuilderPropertyKey("BLACKDUCK_MAX_CONNECTIONS_PER_ROUTE");
+    public static final BuilderPropertyKey CONNECTION_KEEP_ALIVE_KEY = new BuilderPropertyKey("BLACKDUCK_CONNECTION_KEEP_ALIVE_SECONDS");
+    public static final BuilderPropertyKey CONNECTION_IDLE_TIMEOUT_KEY = new BuilderPropertyKey("BLACKDUCK_CONNECTION_IDLE_TIMEOUT_SECONDS");
 
     public static int DEFAULT_TIMEOUT_SECONDS = 120;
 
@@ -81,6 +87,10 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         propertyKeys.add(PROXY_NTLM_DOMAIN_KEY);
         propertyKeys.add(PROXY_NTLM_WORKSTATION_KEY);
         propertyKeys.add(TRUST_CERT_KEY);
+        propertyKeys.add(MAX_CONNECTIONS_KEY);
+        propertyKeys.add(MAX_CONNECTIONS_PER_ROUTE_KEY);
+        propertyKeys.add(CONNECTION_KEEP_ALIVE_KEY);
+        propertyKeys.add(CONNECTION_IDLE_TIMEOUT_KEY);
         builderProperties = new BuilderProperties(propertyKeys);
 
         builderProperties.set(TIMEOUT_KEY, Integer.toString(BlackDuckServerConfigBuilder.DEFAULT_TIMEOUT_SECONDS));
@@ -96,8 +106,10 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
 
         NameVersion solutionDetails = getSolutionDetails();
         ProxyInfo proxyInfo = getProxyInfo();
+        ConnectionPoolSettings connectionPoolSettings = getConnectionPoolSettings().orElse(null);
         if (StringUtils.isNotBlank(getApiToken())) {
-            return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimemoutInSeconds(), getApiToken(), proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, executorService);
+            return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimemoutInSeconds(), getApiToken(), proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, executorService,
+                connectionPoolSettings);
         } else {
             String username = getUsername();
             String password = getPassword();
@@ -106,7 +118,7 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
             Credentials credentials = credentialsBuilder.build();
 
             return new BlackDuckServerConfig(blackDuckUrl, solutionDetails, getTimemoutInSeconds(), credentials, proxyInfo, isTrustCert(), intEnvironmentVariables, gson, objectMapper, authenticationSupport, cookieHeaderParser,
-                executorService);
+                executorService, connectionPoolSettings);
         }
     }
 
@@ -123,6 +135,27 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         if (getTimemoutInSeconds() <= 0) {
             builderStatus.addErrorMessage("The timeout must be greater than zero.");
         }
+
+        validateConnectionPool(builderStatus);
+    }
+
+    private void validateConnectionPool(BuilderStatus builderStatus) {
+        if (!isConnectionPoolConfigured()) {
+            return;
+        }
+
+        if (getMaxConnections() <= 0) {
+            builderStatus.addErrorMessage("The maximum number of connections must be greater than zero.");
+        }
+        if (getMaxConnectionsPerRoute() <= 0 || getMaxConnectionsPerRoute() > getMaxConnections()) {
+            builderStatus.addErrorMessage("The maximum number of connections per route must be greater than zero and no more than the maximum number of connections.");
+        }
+        if (getConnectionKeepAliveInSeconds() <= 0) {
+            builderStatus.addErrorMessage("The connection keep alive must be greater than zero.");
+        }
+        if (getConnectionIdleTimeoutInSeconds() <= 0) {
+            builderStatus.addErrorMessage("The connection idle timeout must be greater than zero.");
+        }
     }
 
     private void validateProxyDetails(BuilderStatus builderStatus) {
@@ -388,6 +421,83 @@ public class BlackDuckServerConfigBuilder extends IntegrationBuilder<BlackDuckSe
         return this;
     }
 
+    /**
+     * Connections are only pooled across requests once at least one of the
+     * pool properties has been set.
+     */
+    public boolean isConnectionPoolConfigured() {
+        return StringUtils.isNotBlank(builderProperties.get(MAX_CONNECTIONS_KEY))
+                   || StringUtils.isNotBlank(builderProperties.get(MAX_CONNECTIONS_PER_ROUTE_KEY))
+                   || StringUtils.isNotBlank(builderProperties.get(CONNECTION_KEEP_ALIVE_KEY))
+                   || StringUtils.isNotBlank(builderProperties.get(CONNECTION_IDLE_TIMEOUT_KEY));
+    }
+
+    public Optional<ConnectionPoolSettings> getConnectionPoolSettings() {
+        if (!isConnectionPoolConfigured()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ConnectionPoolSettings(getMaxConnections(), getMaxConnectionsPerRoute(), Duration.ofSeconds(getConnectionKeepAliveInSeconds()), Duration.ofSeconds(getConnectionIdleTimeoutInSeconds())));
+    }
+
+    public int getMaxConnections() {
+        return NumberUtils.toInt(builderProperties.get(MAX_CONNECTIONS_KEY), ConnectionPoolSettings.DEFAULT_MAX_TOTAL);
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnections(String maxConnections) {
+        builderProperties.set(MAX_CONNECTIONS_KEY, maxConnections);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnections(int maxConnections) {
+        setMaxConnections(String.valueOf(maxConnections));
+        return this;
+    }
+
+    /**
+     * Defaults to the maximum number of connections, since a client only talks to one Black Duck server.
+     */
+    public int getMaxConnectionsPerRoute() {
+        return NumberUtils.toInt(builderProperties.get(MAX_CONNECTIONS_PER_ROUTE_KEY), getMaxConnections());
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnectionsPerRoute(String maxConnectionsPerRoute) {
+        builderProperties.set(MAX_CONNECTIONS_PER_ROUTE_KEY, maxConnectionsPerRoute);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        setMaxConnectionsPerRoute(String.valueOf(maxConnectionsPerRoute));
+        return this;
+    }
+
+    public long getConnectionKeepAliveInSeconds() {
+        return NumberUtils.toLong(builderProperties.get(CONNECTION_KEEP_ALIVE_KEY), ConnectionPoolSettings.DEFAULT_KEEP_ALIVE.getSeconds());
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionKeepAliveInSeconds(String connectionKeepAlive) {
+        builderProperties.set(CONNECTION_KEEP_ALIVE_KEY, connectionKeepAlive);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionKeepAliveInSeconds(long connectionKeepAlive) {
+        setConnectionKeepAliveInSeconds(String.valueOf(connectionKeepAlive));
+        return this;
+    }
+
+    public long getConnectionIdleTimeoutInSeconds() {
+        return NumberUtils.toLong(builderProperties.get(CONNECTION_IDLE_TIMEOUT_KEY), ConnectionPoolSettings.DEFAULT_IDLE_TIMEOUT.getSeconds());
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionIdleTimeoutInSeconds(String connectionIdleTimeout) {
+        builderProperties.set(CONNECTION_IDLE_TIMEOUT_KEY, connectionIdleTimeout);
+        return this;
+    }
+
+    public BlackDuckServerConfigBuilder setConnectionIdleTimeoutInSeconds(long connectionIdleTimeout) {
+        setConnectionIdleTimeoutInSeconds(String.valueOf(connectionIdleTimeout));
+        return this;
+    }
+
     public String getProxyHost() {
         return builderProperties.get(PROXY_HOST_KEY);
     }
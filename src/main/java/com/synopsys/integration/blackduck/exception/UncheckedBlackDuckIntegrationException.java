@@ -0,0 +1,32 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.exception;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Carries an IntegrationException out of code that cannot throw it, such as
+ * an Iterator or a Stream.
+ */
+public class UncheckedBlackDuckIntegrationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedBlackDuckIntegrationException(final String message, final IntegrationException cause) {
+        super(message, cause);
+    }
+
+    public UncheckedBlackDuckIntegrationException(final IntegrationException cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized IntegrationException getCause() {
+        return (IntegrationException) super.getCause();
+    }
+
+}
@@ -42,11 +42,15 @@ public class BlackDuckRequestBuilder {
     public static final String OFFSET_PARAMETER = "offset";
     public static final String Q_PARAMETER = "q";
     public static final String FILTER_PARAMETER = "filter";
+    public static final String NO_CACHE = "no-cache";
+    public static final String GZIP = "gzip";
 
     public static final int DEFAULT_LIMIT = 100;
     public static final int DEFAULT_OFFSET = 0;
 
     private final Request.Builder requestBuilder;
+    // whether the limit was left to this library rather than chosen by the caller
+    private boolean defaultLimit;
 
     public BlackDuckRequestBuilder() {
         this.requestBuilder = new Request.Builder();
@@ -62,10 +66,12 @@ public class BlackDuckRequestBuilder {
 
     public BlackDuckRequestBuilder(BlackDuckRequest<?, ?> blackDuckRequest) {
         this.requestBuilder = new Request.Builder(blackDuckRequest.getRequest());
+        this.defaultLimit = blackDuckRequest.isDefaultLimit();
     }
 
     public BlackDuckRequestBuilder(BlackDuckRequestBuilder blackDuckRequestBuilder) {
         this(blackDuckRequestBuilder.requestBuilder);
+        this.defaultLimit = blackDuckRequestBuilder.defaultLimit;
     }
 
     public Request build() {
@@ -104,9 +110,24 @@ public class BlackDuckRequestBuilder {
 
     public BlackDuckRequestBuilder setLimit(int limit) {
         requestBuilder.setQueryParameter(LIMIT_PARAMETER, String.valueOf(limit));
+        defaultLimit = false;
         return this;
     }
 
+    /**
+     * Sets a limit the caller did not choose, so a PageSizePolicy may replace
+     * it - setting any other limit afterwards keeps that one as it is.
+     */
+    public BlackDuckRequestBuilder setDefaultLimit(int limit) {
+        setLimit(limit);
+        defaultLimit = true;
+        return this;
+    }
+
+    public boolean isDefaultLimit() {
+        return defaultLimit;
+    }
+
     public BlackDuckRequestBuilder setOffset(int offset) {
         requestBuilder.setQueryParameter(OFFSET_PARAMETER, String.valueOf(offset));
         return this;
@@ -136,6 +157,24 @@ public class BlackDuckRequestBuilder {
         return this;
     }
 
+    /**
+     * Asks any caching client to skip what it has cached (including
+     * remembered 404 responses) and get a fresh answer from Black Duck.
+     */
+    public BlackDuckRequestBuilder noCache() {
+        addHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+        return this;
+    }
+
+    /**
+     * Sends the body gzip compressed. If Black Duck rejects the compressed
+     * body, the request is sent again uncompressed.
+     */
+    public BlackDuckRequestBuilder gzipBody() {
+        addHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        return this;
+    }
+
     public BlackDuckRequestBuilder bodyEncoding(Charset bodyEncoding) {
         requestBuilder.bodyEncoding(bodyEncoding);
         return this;
@@ -143,11 +182,15 @@ public class BlackDuckRequestBuilder {
 
     public BlackDuckRequestBuilder queryParameters(Map<String, Set<String>> queryParameters) {
         requestBuilder.queryParameters(queryParameters);
+        defaultLimit = false;
         return this;
     }
 
     public BlackDuckRequestBuilder addQueryParameter(String key, String value) {
         requestBuilder.addQueryParameter(key, value);
+        if (LIMIT_PARAMETER.equals(key)) {
+            defaultLimit = false;
+        }
         return this;
     }
 
@@ -179,7 +222,8 @@ public class BlackDuckRequestBuilder {
     }
 
     public BlackDuckRequestBuilder commonGet() {
-        setLimitAndOffset(DEFAULT_LIMIT, DEFAULT_OFFSET);
+        setDefaultLimit(DEFAULT_LIMIT);
+        setOffset(DEFAULT_OFFSET);
         return get();
     }
 
@@ -8,6 +8,7 @@
 package com.synopsys.integration.blackduck.http;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -19,6 +20,10 @@ import com.synopsys.integration.rest.HttpUrl;
  * {searchTerm2}/{searchTerm2Id}/{searchTerm3}/{searchTerm3Id}...
  */
 public class BlackDuckUrl {
+    public static final String ID_PLACEHOLDER = "{id}";
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{20,}");
+
     private final HttpUrl url;
 
     public BlackDuckUrl(HttpUrl url) {
@@ -38,4 +43,37 @@ public class BlackDuckUrl {
         return searching;
     }
 
+    /**
+     * The path with every id that follows a search term replaced by {id},
+     * so /api/projects/{projectId}/versions/{versionId} becomes
+     * /api/projects/{id}/versions/{id} - the query is dropped.
+     */
+    public String parseTemplate() {
+        String path = StringUtils.substringBefore(url.string(), "?");
+        int schemeEnd = path.indexOf("://");
+        if (schemeEnd >= 0) {
+            int pathStart = path.indexOf('/', schemeEnd + 3);
+            path = pathStart >= 0 ? path.substring(pathStart) : "/";
+        }
+
+        String[] segments = StringUtils.split(path, '/');
+        StringBuilder template = new StringBuilder();
+        boolean afterSearchTerm = false;
+        for (String segment : segments) {
+            template.append('/');
+            if (afterSearchTerm && isId(segment)) {
+                template.append(ID_PLACEHOLDER);
+                afterSearchTerm = false;
+            } else {
+                template.append(segment);
+                afterSearchTerm = true;
+            }
+        }
+        return template.length() > 0 ? template.toString() : "/";
+    }
+
+    public static boolean isId(String segment) {
+        return ID_PATTERN.matcher(segment).matches();
+    }
+
 }
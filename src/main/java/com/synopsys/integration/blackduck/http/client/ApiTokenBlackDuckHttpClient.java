@@ -7,13 +7,18 @@
  */
 package com.synopsys.integration.blackduck.http.client;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.HttpUriRequest;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -26,11 +31,39 @@ import com.synopsys.integration.util.NameVersion;
  * Connection to the Black Duck application which authenticates using the API token feature
  */
 public class ApiTokenBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
+    public static final String BEARER_TOKEN_KEY = "bearerToken";
+    public static final String EXPIRES_IN_MILLISECONDS_KEY = "expiresInMilliseconds";
+
     private final String apiToken;
 
     public ApiTokenBlackDuckHttpClient(
         IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, String apiToken) {
-        super(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport);
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, apiToken, null);
+    }
+
+    public ApiTokenBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, String apiToken,
+        ConnectionPoolSettings connectionPoolSettings) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, apiToken, connectionPoolSettings, null);
+    }
+
+    /**
+     * @param bearerTokenHolder only share this with clients using the same API token on the same Black Duck server
+     */
+    public ApiTokenBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, String apiToken,
+        ConnectionPoolSettings connectionPoolSettings, BearerTokenHolder bearerTokenHolder) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, apiToken,
+            null != connectionPoolSettings ? new BlackDuckConnectionPool(connectionPoolSettings, alwaysTrustServerCertificate) : null, bearerTokenHolder);
+    }
+
+    /**
+     * @param bearerTokenHolder only share this with clients using the same API token on the same Black Duck server
+     */
+    public ApiTokenBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, String apiToken,
+        BlackDuckConnectionPool connectionPool, BearerTokenHolder bearerTokenHolder) {
+        super(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, connectionPool, bearerTokenHolder);
         this.apiToken = apiToken;
 
         if (StringUtils.isBlank(apiToken)) {
@@ -43,12 +76,32 @@ public class ApiTokenBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
         Map<String, String> headers = new HashMap<>();
         headers.put(AuthenticationSupport.AUTHORIZATION_HEADER, "token " + apiToken);
 
-        return authenticationSupport.attemptAuthentication(this, getBlackDuckUrl(), "api/tokens/authenticate", headers);
+        return attemptUncountedAuthentication(() -> authenticationSupport.attemptAuthentication(this, getBlackDuckUrl(), "api/tokens/authenticate", headers));
+    }
+
+    @Override
+    protected Optional<BearerToken> requestBearerToken() throws IntegrationException {
+        try (Response response = attemptAuthentication()) {
+            if (!response.isStatusCodeSuccess()) {
+                return Optional.empty();
+            }
+            JsonObject tokenResponse = getGson().fromJson(response.getContentString(), JsonObject.class);
+            if (null == tokenResponse || !tokenResponse.has(BEARER_TOKEN_KEY)) {
+                return Optional.empty();
+            }
+            Duration lifetime = null;
+            if (tokenResponse.has(EXPIRES_IN_MILLISECONDS_KEY)) {
+                lifetime = Duration.ofMillis(tokenResponse.get(EXPIRES_IN_MILLISECONDS_KEY).getAsLong());
+            }
+            return Optional.of(new BearerToken(tokenResponse.get(BEARER_TOKEN_KEY).getAsString(), lifetime));
+        } catch (IOException | JsonParseException e) {
+            throw new IntegrationException("Could not read the bearer token: " + e.getMessage(), e);
+        }
     }
 
     @Override
     protected void completeAuthenticationRequest(HttpUriRequest request, Response response) {
-        authenticationSupport.completeTokenAuthenticationRequest(request, response, logger, getGson(), this, "bearerToken");
+        authenticationSupport.completeTokenAuthenticationRequest(request, response, logger, getGson(), this, BEARER_TOKEN_KEY);
     }
 
 }
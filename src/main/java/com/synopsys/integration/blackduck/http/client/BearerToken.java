@@ -0,0 +1,38 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+public class BearerToken {
+    private final String token;
+    private final Duration lifetime;
+
+    /**
+     * @param lifetime how long Black Duck said the token is valid for, or null if it didn't say
+     */
+    public BearerToken(String token, Duration lifetime) {
+        if (StringUtils.isBlank(token)) {
+            throw new IllegalArgumentException("A bearer token can not be blank.");
+        }
+        this.token = token;
+        this.lifetime = lifetime;
+    }
+
+    public String getAuthorizationHeaderValue() {
+        return "Bearer " + token;
+    }
+
+    public Optional<Duration> getLifetime() {
+        return Optional.ofNullable(lifetime);
+    }
+
+}
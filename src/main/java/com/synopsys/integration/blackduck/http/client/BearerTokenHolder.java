@@ -0,0 +1,219 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Holds the bearer token for one set of credentials on one Black Duck
+ * server, so it can be shared by every client authenticating with them.
+ *
+ * Only one thread authenticates at a time - any others needing a token wait
+ * for its result rather than authenticating too. Once a token is past the
+ * refresh ratio of its lifetime, the next request starts renewing it on the
+ * executor while the current token is still used. If that renewal fails,
+ * the token is renewed in the foreground once it has expired.
+ *
+ * By default a holder renews on a single thread of its own, so a renewal
+ * never waits behind, or takes a thread from, the work making the requests.
+ */
+public class BearerTokenHolder {
+    public static final double DEFAULT_REFRESH_RATIO = 0.8;
+
+    private final Executor refreshExecutor;
+    private final double refreshRatio;
+    private final LongSupplier nanoTime;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean refreshingInBackground = new AtomicBoolean(false);
+    private HeldToken current;
+    private CompletableFuture<HeldToken> authentication;
+
+    public BearerTokenHolder() {
+        this(createRefreshExecutor());
+    }
+
+    public BearerTokenHolder(Executor refreshExecutor) {
+        this(refreshExecutor, DEFAULT_REFRESH_RATIO, System::nanoTime);
+    }
+
+    public BearerTokenHolder(Executor refreshExecutor, double refreshRatio, LongSupplier nanoTime) {
+        if (refreshRatio <= 0 || refreshRatio > 1) {
+            throw new IllegalArgumentException("The refresh ratio must be greater than zero and at most one.");
+        }
+        this.refreshExecutor = refreshExecutor;
+        this.refreshRatio = refreshRatio;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return the Authorization header value to send, or empty if the source didn't provide a token
+     */
+    public Optional<String> getAuthorizationHeaderValue(TokenSource tokenSource) throws IntegrationException {
+        HeldToken heldToken = getCurrent();
+        long now = nanoTime.getAsLong();
+        if (null == heldToken || heldToken.isExpired(now)) {
+            heldToken = authenticate(heldToken, tokenSource);
+        } else if (heldToken.isDueForRefresh(now)) {
+            refreshInBackground(heldToken, tokenSource);
+        }
+        return Optional.ofNullable(heldToken).map(HeldToken::getAuthorizationHeaderValue);
+    }
+
+    /**
+     * Forgets the token if it is still the one that was rejected - a token
+     * that has already been replaced is left alone.
+     */
+    public void invalidate(String rejectedAuthorizationHeaderValue) {
+        synchronized (lock) {
+            if (null != current && current.getAuthorizationHeaderValue().equals(rejectedAuthorizationHeaderValue)) {
+                current = null;
+            }
+        }
+    }
+
+    public boolean hasToken() {
+        return null != getCurrent();
+    }
+
+    private static Executor createRefreshExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blackduck-bearer-token-refresh");
+            // an idle refresh thread must not keep the JVM running
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private HeldToken getCurrent() {
+        synchronized (lock) {
+            return current;
+        }
+    }
+
+    private void refreshInBackground(HeldToken staleToken, TokenSource tokenSource) {
+        if (!refreshingInBackground.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    authenticate(staleToken, tokenSource);
+                } catch (IntegrationException | RuntimeException ignored) {
+                    // the token is still valid - it will be renewed in the foreground once it expires
+                } finally {
+                    refreshingInBackground.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingInBackground.set(false);
+        }
+    }
+
+    private HeldToken authenticate(HeldToken staleToken, TokenSource tokenSource) throws IntegrationException {
+        CompletableFuture<HeldToken> pendingAuthentication;
+        boolean authenticating = false;
+        synchronized (lock) {
+            if (null != current && current != staleToken && !current.isExpired(nanoTime.getAsLong())) {
+                // another thread already replaced the token
+                return current;
+            }
+            if (null == authentication) {
+                authentication = new CompletableFuture<>();
+                authenticating = true;
+            }
+            pendingAuthentication = authentication;
+        }
+
+        if (authenticating) {
+            try {
+                long authenticatedAt = nanoTime.getAsLong();
+                HeldToken heldToken = tokenSource.authenticate()
+                                          .map(bearerToken -> new HeldToken(bearerToken, authenticatedAt))
+                                          .orElse(null);
+                synchronized (lock) {
+                    current = heldToken;
+                    authentication = null;
+                }
+                pendingAuthentication.complete(heldToken);
+            } catch (IntegrationException | RuntimeException e) {
+                synchronized (lock) {
+                    authentication = null;
+                }
+                pendingAuthentication.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        return waitFor(pendingAuthentication);
+    }
+
+    private HeldToken waitFor(CompletableFuture<HeldToken> pendingAuthentication) throws IntegrationException {
+        try {
+            return pendingAuthentication.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while waiting for authentication with Black Duck.", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IntegrationException("Could not authenticate with Black Duck: " + cause.getMessage(), cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TokenSource {
+        Optional<BearerToken> authenticate() throws IntegrationException;
+
+    }
+
+    private class HeldToken {
+        private final String authorizationHeaderValue;
+        private final Long refreshAt;
+        private final Long expiresAt;
+
+        public HeldToken(BearerToken bearerToken, long authenticatedAt) {
+            this.authorizationHeaderValue = bearerToken.getAuthorizationHeaderValue();
+            Optional<Duration> lifetime = bearerToken.getLifetime();
+            this.refreshAt = lifetime.map(duration -> authenticatedAt + (long) (duration.toNanos() * refreshRatio)).orElse(null);
+            this.expiresAt = lifetime.map(duration -> authenticatedAt + duration.toNanos()).orElse(null);
+        }
+
+        public String getAuthorizationHeaderValue() {
+            return authorizationHeaderValue;
+        }
+
+        /**
+         * A token without a known lifetime is kept until Black Duck rejects it.
+         */
+        public boolean isExpired(long now) {
+            return null != expiresAt && now - expiresAt >= 0;
+        }
+
+        public boolean isDueForRefresh(long now) {
+            return null != refreshAt && now - refreshAt >= 0;
+        }
+
+    }
+
+}
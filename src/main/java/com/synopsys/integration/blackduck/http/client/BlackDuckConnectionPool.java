@@ -0,0 +1,144 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.conn.util.PublicSuffixMatcherLoader;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+
+/**
+ * A connection pool that outlives the individual HttpClients built for each
+ * request, so connections to Black Duck are actually reused.
+ *
+ * Idle connections are evicted by the threads making requests rather than by
+ * a background thread - at most once per half of the idle timeout.
+ *
+ * One pool is meant to be shared by every client of a BlackDuckServerConfig.
+ * Proxies keep working through the pool since they are part of each request's
+ * route, but the socket factories are not, so they are created here the same
+ * way IntHttpClient and HttpClientBuilder would have created them.
+ */
+public class BlackDuckConnectionPool {
+    private final ConnectionPoolSettings connectionPoolSettings;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextEviction;
+
+    public BlackDuckConnectionPool(ConnectionPoolSettings connectionPoolSettings, boolean alwaysTrustServerCertificate) {
+        this(connectionPoolSettings, createSocketFactoryRegistry(alwaysTrustServerCertificate), System::nanoTime);
+    }
+
+    public BlackDuckConnectionPool(ConnectionPoolSettings connectionPoolSettings, Registry<ConnectionSocketFactory> socketFactoryRegistry, LongSupplier nanoTime) {
+        this.connectionPoolSettings = connectionPoolSettings;
+        this.nanoTime = nanoTime;
+        this.nextEviction = new AtomicLong(nanoTime.getAsLong() + getEvictionInterval());
+
+        connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(connectionPoolSettings.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(connectionPoolSettings.getMaxPerRoute());
+    }
+
+    /**
+     * The connection manager replaces any socket factory on the builder, which
+     * is why the pool is created knowing whether to trust the certificate -
+     * only share it between clients that agree on that.
+     */
+    public void addToHttpClientBuilder(HttpClientBuilder httpClientBuilder) {
+        httpClientBuilder.setConnectionManager(connectionManager);
+        // closing the per-request client must not shut the pool down
+        httpClientBuilder.setConnectionManagerShared(true);
+        httpClientBuilder.setKeepAliveStrategy(this::getKeepAliveDuration);
+    }
+
+    public void evictIdleConnectionsIfDue() {
+        long now = nanoTime.getAsLong();
+        long scheduledEviction = nextEviction.get();
+        if (now - scheduledEviction >= 0 && nextEviction.compareAndSet(scheduledEviction, now + getEvictionInterval())) {
+            evictIdleConnections();
+        }
+    }
+
+    public void evictIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(connectionPoolSettings.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The live number of leased, available and pending (waiting for a
+     * connection) requests, and the maximum.
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public ConnectionPoolSettings getConnectionPoolSettings() {
+        return connectionPoolSettings;
+    }
+
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+
+    private long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        long maximumKeepAlive = connectionPoolSettings.getKeepAlive().toMillis();
+        return serverKeepAlive < 0 ? maximumKeepAlive : Math.min(serverKeepAlive, maximumKeepAlive);
+    }
+
+    private long getEvictionInterval() {
+        return connectionPoolSettings.getIdleTimeout().toNanos() / 2;
+    }
+
+    /**
+     * The https socket factory matches the one the client builder would use on
+     * its own: IntHttpClient's trust-everything factory when the certificate is
+     * always trusted, and HttpClientBuilder's default otherwise.
+     */
+    public static Registry<ConnectionSocketFactory> createSocketFactoryRegistry(boolean alwaysTrustServerCertificate) {
+        SSLConnectionSocketFactory sslConnectionSocketFactory;
+        if (alwaysTrustServerCertificate) {
+            try {
+                SSLContext sslContext = SSLContextBuilder.create()
+                                            .loadTrustMaterial(new TrustAllStrategy())
+                                            .build();
+                sslConnectionSocketFactory = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not create a connection pool that trusts the server certificate: " + e.getMessage(), e);
+            }
+        } else {
+            sslConnectionSocketFactory = new SSLConnectionSocketFactory(SSLContexts.createDefault(), new DefaultHostnameVerifier(PublicSuffixMatcherLoader.getDefault()));
+        }
+
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .register("https", sslConnectionSocketFactory)
+                   .build();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.api.manual.response.BlackDuckResponseResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.client.cache.CacheableResponse;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Concurrent GETs for the same request share a single call to Black Duck:
+ * the first caller executes it, and every caller that arrives while it is in
+ * flight is handed that same response. The content is only buffered when
+ * another caller is actually waiting - otherwise the response is streamed to
+ * the first caller as if it had not been coalesced at all.
+ *
+ * Raw BlackDuckResponseResponse requests (downloads, uploads) are never
+ * coalesced because their content may be too large to buffer. If the shared
+ * call fails, or comes back with an error status, the waiting callers make
+ * their own calls so each one sees its own failure.
+ */
+public class CoalescingHttpClient extends DelegatingBlackDuckHttpClient {
+    private final Map<Request, InFlightCall> inFlightCalls = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public CoalescingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        super(blackDuckHttpClient);
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        if (HttpMethod.GET != request.getMethod() || BlackDuckResponseResponse.class.equals(blackDuckRequest.getResponseClass())) {
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        }
+
+        InFlightCall call = new InFlightCall();
+        InFlightCall inFlightCall = inFlightCalls.putIfAbsent(request, call);
+        if (null != inFlightCall) {
+            Response sharedResponse = inFlightCall.join();
+            if (null != sharedResponse) {
+                coalescedCount.increment();
+                return sharedResponse;
+            }
+            executedCount.increment();
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        }
+
+        Response sharedResponse = null;
+        try {
+            executedCount.increment();
+            Response response = blackDuckHttpClient.execute(blackDuckRequest);
+            // only new callers can find the call once it is removed, so the waiter count is final after this
+            inFlightCalls.remove(request, call);
+            if (!response.isStatusCodeSuccess() || !call.hasWaiters()) {
+                return response;
+            }
+
+            sharedResponse = buffer(response);
+            return sharedResponse;
+        } finally {
+            inFlightCalls.remove(request, call);
+            call.complete(sharedResponse);
+        }
+    }
+
+    /**
+     * The number of calls that were actually made to the wrapped client.
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * The number of calls that were saved by sharing an in-flight response.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlightCalls.size();
+    }
+
+    private Response buffer(Response response) throws IntegrationException {
+        CacheableResponse bufferedResponse = new CacheableResponse(response, ignored -> {});
+        // the content is held in memory once read, so the connection can go back right away - or as soon as reading it fails
+        try (Response closedResponse = response) {
+            bufferedResponse.getContentString();
+        } catch (IOException e) {
+            throw new BlackDuckIntegrationException("Could not close the response: " + e.getMessage(), e);
+        }
+        return bufferedResponse;
+    }
+
+    private static class InFlightCall {
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
+        private final AtomicInteger waiterCount = new AtomicInteger();
+
+        public Response join() throws IntegrationException {
+            waiterCount.incrementAndGet();
+            try {
+                return response.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlackDuckIntegrationException("Interrupted while waiting for an identical request: " + e.getMessage(), e);
+            } catch (ExecutionException e) {
+                // the call is only ever completed normally
+                return null;
+            }
+        }
+
+        public boolean hasWaiters() {
+            return waiterCount.get() > 0;
+        }
+
+        public void complete(Response sharedResponse) {
+            response.complete(sharedResponse);
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import java.time.Duration;
+
+import com.synopsys.integration.util.Stringable;
+
+public class ConnectionPoolSettings extends Stringable {
+    // a client only ever talks to one Black Duck server, so one route gets the whole pool by default
+    public static final int DEFAULT_MAX_TOTAL = 20;
+    public static final int DEFAULT_MAX_PER_ROUTE = DEFAULT_MAX_TOTAL;
+    public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final Duration keepAlive;
+    private final Duration idleTimeout;
+
+    public static ConnectionPoolSettings defaultSettings() {
+        return new ConnectionPoolSettings(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_KEEP_ALIVE, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param keepAlive   the longest a connection will be reused, even if the server would allow longer
+     * @param idleTimeout connections idle for longer than this are closed
+     */
+    public ConnectionPoolSettings(int maxTotal, int maxPerRoute, Duration keepAlive, Duration idleTimeout) {
+        if (maxTotal <= 0) {
+            throw new IllegalArgumentException("The maximum number of connections must be greater than zero.");
+        }
+        if (maxPerRoute <= 0 || maxPerRoute > maxTotal) {
+            throw new IllegalArgumentException("The maximum number of connections per route must be greater than zero and no more than the maximum number of connections.");
+        }
+        if (null == keepAlive || keepAlive.isZero() || keepAlive.isNegative()) {
+            throw new IllegalArgumentException("The connection keep alive must be positive.");
+        }
+        if (null == idleTimeout || idleTimeout.isZero() || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("The connection idle timeout must be positive.");
+        }
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.keepAlive = keepAlive;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+}
@@ -7,11 +7,13 @@
  */
 package com.synopsys.integration.blackduck.http.client;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -35,7 +37,32 @@ public class CredentialsBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
     public CredentialsBlackDuckHttpClient(
         IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, Credentials credentials,
         CookieHeaderParser cookieHeaderParser) {
-        super(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport);
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, credentials, cookieHeaderParser, null);
+    }
+
+    public CredentialsBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, Credentials credentials,
+        CookieHeaderParser cookieHeaderParser, ConnectionPoolSettings connectionPoolSettings) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, credentials, cookieHeaderParser, connectionPoolSettings, null);
+    }
+
+    /**
+     * @param bearerTokenHolder only share this with clients using the same credentials on the same Black Duck server
+     */
+    public CredentialsBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, Credentials credentials,
+        CookieHeaderParser cookieHeaderParser, ConnectionPoolSettings connectionPoolSettings, BearerTokenHolder bearerTokenHolder) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, credentials, cookieHeaderParser,
+            null != connectionPoolSettings ? new BlackDuckConnectionPool(connectionPoolSettings, alwaysTrustServerCertificate) : null, bearerTokenHolder);
+    }
+
+    /**
+     * @param bearerTokenHolder only share this with clients using the same credentials on the same Black Duck server
+     */
+    public CredentialsBlackDuckHttpClient(
+        IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport, Credentials credentials,
+        CookieHeaderParser cookieHeaderParser, BlackDuckConnectionPool connectionPool, BearerTokenHolder bearerTokenHolder) {
+        super(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, connectionPool, bearerTokenHolder);
         this.credentials = credentials;
         this.cookieHeaderParser = cookieHeaderParser;
 
@@ -51,7 +78,25 @@ public class CredentialsBlackDuckHttpClient extends DefaultBlackDuckHttpClient {
         bodyValues.add(new BasicNameValuePair("j_password", credentials.getPassword().orElse(null)));
         UrlEncodedFormEntity entity = new UrlEncodedFormEntity(bodyValues, StandardCharsets.UTF_8);
 
-        return authenticationSupport.attemptAuthentication(this, getBlackDuckUrl(), "j_spring_security_check", entity);
+        return attemptUncountedAuthentication(() -> authenticationSupport.attemptAuthentication(this, getBlackDuckUrl(), "j_spring_security_check", entity));
+    }
+
+    /**
+     * The session cookie doesn't say when it expires, so the token is kept
+     * until Black Duck rejects it.
+     */
+    @Override
+    protected Optional<BearerToken> requestBearerToken() throws IntegrationException {
+        try (Response response = attemptAuthentication()) {
+            if (!response.isStatusCodeSuccess()) {
+                return Optional.empty();
+            }
+            return cookieHeaderParser.parseBearerToken(response.getActualResponse().getAllHeaders())
+                       .filter(StringUtils::isNotBlank)
+                       .map(token -> new BearerToken(token, null));
+        } catch (IOException e) {
+            throw new IntegrationException("Could not read the bearer token: " + e.getMessage(), e);
+        }
     }
 
     @Override
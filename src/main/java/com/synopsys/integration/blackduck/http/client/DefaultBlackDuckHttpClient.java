@@ -7,17 +7,31 @@
  */
 package com.synopsys.integration.blackduck.http.client;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.pool.PoolStats;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
 import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.BlackDuckUrl;
+import com.synopsys.integration.blackduck.http.client.metrics.BlackDuckHttpMetrics;
+import com.synopsys.integration.blackduck.http.client.metrics.MeteredResponse;
+import com.synopsys.integration.blackduck.http.client.metrics.RequestMetric;
+import com.synopsys.integration.blackduck.http.client.metrics.TransferCounter;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.blackduck.useragent.BlackDuckCommon;
 import com.synopsys.integration.blackduck.useragent.UserAgentBuilder;
@@ -39,12 +53,34 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
     private final HttpUrl blackDuckUrl;
     private final String userAgentString;
 
+    private final BlackDuckConnectionPool connectionPool;
+    private final Set<String> gzipRejectingTemplates = ConcurrentHashMap.newKeySet();
+    private final BearerTokenHolder bearerTokenHolder;
+    private volatile BlackDuckHttpMetrics httpMetrics = BlackDuckHttpMetrics.NO_OP;
+
     protected final AuthenticationSupport authenticationSupport;
 
     public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport) {
         this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport);
     }
 
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport,
+        ConnectionPoolSettings connectionPoolSettings) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionDetails, authenticationSupport, connectionPoolSettings, null);
+    }
+
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport,
+        ConnectionPoolSettings connectionPoolSettings, BearerTokenHolder bearerTokenHolder) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport, connectionPoolSettings,
+            bearerTokenHolder);
+    }
+
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, NameVersion solutionDetails, AuthenticationSupport authenticationSupport,
+        BlackDuckConnectionPool connectionPool, BearerTokenHolder bearerTokenHolder) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, new UserAgentItem(solutionDetails), BlackDuckCommon.createUserAgentItem(), authenticationSupport, connectionPool,
+            bearerTokenHolder);
+    }
+
     public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, UserAgentItem solutionUserAgentItem,
         AuthenticationSupport authenticationSupport) {
         this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionUserAgentItem, BlackDuckCommon.createUserAgentItem(), authenticationSupport);
@@ -52,6 +88,30 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
 
     public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, UserAgentItem solutionUserAgentItem,
         UserAgentItem blackDuckCommonUserAgentItem, AuthenticationSupport authenticationSupport) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionUserAgentItem, blackDuckCommonUserAgentItem, authenticationSupport, null);
+    }
+
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, UserAgentItem solutionUserAgentItem,
+        UserAgentItem blackDuckCommonUserAgentItem, AuthenticationSupport authenticationSupport, ConnectionPoolSettings connectionPoolSettings) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionUserAgentItem, blackDuckCommonUserAgentItem, authenticationSupport, connectionPoolSettings, null);
+    }
+
+    /**
+     * @param connectionPoolSettings if null, every request gets its own connection, as it always has
+     * @param bearerTokenHolder      if null, each client authenticates on its own, as it always has
+     */
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, UserAgentItem solutionUserAgentItem,
+        UserAgentItem blackDuckCommonUserAgentItem, AuthenticationSupport authenticationSupport, ConnectionPoolSettings connectionPoolSettings, BearerTokenHolder bearerTokenHolder) {
+        this(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo, blackDuckUrl, solutionUserAgentItem, blackDuckCommonUserAgentItem, authenticationSupport,
+            null != connectionPoolSettings ? new BlackDuckConnectionPool(connectionPoolSettings, alwaysTrustServerCertificate) : null, bearerTokenHolder);
+    }
+
+    /**
+     * @param connectionPool    if null, every request gets its own connection - it should only be shared by clients that agree on trusting the certificate
+     * @param bearerTokenHolder if null, each client authenticates on its own, as it always has
+     */
+    public DefaultBlackDuckHttpClient(IntLogger logger, Gson gson, int timeout, boolean alwaysTrustServerCertificate, ProxyInfo proxyInfo, HttpUrl blackDuckUrl, UserAgentItem solutionUserAgentItem,
+        UserAgentItem blackDuckCommonUserAgentItem, AuthenticationSupport authenticationSupport, BlackDuckConnectionPool connectionPool, BearerTokenHolder bearerTokenHolder) {
         super(logger, gson, timeout, alwaysTrustServerCertificate, proxyInfo);
 
         if (null == blackDuckUrl) {
@@ -67,6 +127,12 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
         this.userAgentString = userAgentBuilder.createFullUserAgentString();
 
         this.authenticationSupport = authenticationSupport;
+        this.bearerTokenHolder = bearerTokenHolder;
+
+        this.connectionPool = connectionPool;
+        if (null != connectionPool) {
+            connectionPool.addToHttpClientBuilder(getClientBuilder());
+        }
     }
 
     @Override
@@ -77,25 +143,112 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
             requestBuilder.addHeader(HttpHeaders.USER_AGENT, userAgentString);
         }
 
+        boolean gzipRequestBody = BlackDuckRequestBuilder.GZIP.equalsIgnoreCase(requestBuilder.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+        if (gzipRequestBody && isGzipRequestBodyRejected(blackDuckRequest.getRequest().getUrl())) {
+            removeContentEncoding(requestBuilder);
+            gzipRequestBody = false;
+        }
+
         Request request = requestBuilder.build();
 
+        if (null != connectionPool) {
+            connectionPool.evictIdleConnectionsIfDue();
+        }
+
+        BlackDuckHttpMetrics metrics = httpMetrics;
+        if (BlackDuckHttpMetrics.NO_OP == metrics) {
+            return executeWithGzipFallback(request, requestBuilder, gzipRequestBody);
+        }
+
+        String template = new BlackDuckUrl(request.getUrl()).parseTemplate();
+        String method = request.getMethod().name();
+        long startNanos = System.nanoTime();
+        TransferCounter transferCounter = TransferCounter.start();
         try {
-            return super.execute(request);
-        } catch (IntegrationRestException e) {
-            throw transformException(e);
+            Response response = executeWithGzipFallback(request, requestBuilder, gzipRequestBody);
+            return new MeteredResponse(response, metrics, transferCounter, template, method, startNanos, System::nanoTime);
+        } catch (IntegrationException e) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            metrics.record(new RequestMetric(template, method, extractStatusCode(e), transferCounter.getBytesSent(), transferCounter.getBytesReceived(), elapsedNanos, elapsedNanos));
+            throw e;
+        } finally {
+            TransferCounter.stop();
         }
     }
 
+    /**
+     * Every request from now on is recorded to the given metrics, once its
+     * response is read or closed. Leaving this unset costs nothing.
+     */
+    public void setHttpMetrics(BlackDuckHttpMetrics httpMetrics) {
+        this.httpMetrics = null == httpMetrics ? BlackDuckHttpMetrics.NO_OP : httpMetrics;
+    }
+
+    public BlackDuckHttpMetrics getHttpMetrics() {
+        return httpMetrics;
+    }
+
+    /**
+     * Whether Black Duck has rejected a compressed body sent to the same
+     * endpoint as the given url - other endpoints may still accept them.
+     */
+    public boolean isGzipRequestBodyRejected(HttpUrl url) {
+        return gzipRejectingTemplates.contains(new BlackDuckUrl(url).parseTemplate());
+    }
+
     @Override
     public boolean isAlreadyAuthenticated(HttpUriRequest request) {
+        if (null != bearerTokenHolder) {
+            try {
+                Optional<String> authorization = bearerTokenHolder.getAuthorizationHeaderValue(this::requestBearerToken);
+                if (authorization.isPresent()) {
+                    request.setHeader(AuthenticationSupport.AUTHORIZATION_HEADER, authorization.get());
+                    return true;
+                }
+            } catch (IntegrationException e) {
+                // the usual authentication will report the problem
+                logger.debug("Could not get a shared bearer token: " + e.getMessage());
+            }
+        }
         return authenticationSupport.isTokenAlreadyAuthenticated(request);
     }
 
     @Override
     public void handleErrorResponse(HttpUriRequest request, Response response) {
+        Header rejectedAuthorization = request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER);
+
         super.handleErrorResponse(request, response);
 
         authenticationSupport.handleTokenErrorResponse(this, request, response);
+        if (null != bearerTokenHolder && null != rejectedAuthorization && HttpStatus.SC_UNAUTHORIZED == response.getStatusCode()) {
+            bearerTokenHolder.invalidate(rejectedAuthorization.getValue());
+        }
+    }
+
+    /**
+     * Authenticates and returns the token from the response, for the shared
+     * BearerTokenHolder. Clients that can't get a token this way keep
+     * authenticating each request through AuthenticationSupport.
+     */
+    protected Optional<BearerToken> requestBearerToken() throws IntegrationException {
+        return Optional.empty();
+    }
+
+    /**
+     * Sends an authentication request. Its bytes aren't counted against the
+     * metered request that needed it.
+     */
+    protected Response attemptUncountedAuthentication(AuthenticationAttempt authenticationAttempt) throws IntegrationException {
+        TransferCounter transferCounter = TransferCounter.pause();
+        try {
+            return authenticationAttempt.attempt();
+        } finally {
+            TransferCounter.resume(transferCounter);
+        }
+    }
+
+    public Optional<BearerTokenHolder> getBearerTokenHolder() {
+        return Optional.ofNullable(bearerTokenHolder);
     }
 
     @Override
@@ -107,6 +260,18 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
         }
     }
 
+    /**
+     * The live leased, available and pending connection counts, if this
+     * client was created with a connection pool.
+     */
+    public Optional<PoolStats> getConnectionPoolStats() {
+        return getConnectionPool().map(BlackDuckConnectionPool::getTotalStats);
+    }
+
+    public Optional<BlackDuckConnectionPool> getConnectionPool() {
+        return Optional.ofNullable(connectionPool);
+    }
+
     @Override
     public HttpUrl getBlackDuckUrl() {
         return blackDuckUrl;
@@ -131,6 +296,50 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
     protected void addToHttpClientBuilder(HttpClientBuilder httpClientBuilder, RequestConfig.Builder defaultRequestConfigBuilder) {
         super.addToHttpClientBuilder(httpClientBuilder, defaultRequestConfigBuilder);
         httpClientBuilder.setRedirectStrategy(new BlackDuckRedirectStrategy());
+        httpClientBuilder.addInterceptorFirst(new GzipRequestInterceptor());
+        // bytes are counted as sent, after compression, and as received, before decompression
+        httpClientBuilder.addInterceptorLast(TransferCounter.createRequestInterceptor());
+        httpClientBuilder.addInterceptorFirst(TransferCounter.createResponseInterceptor());
+    }
+
+    private Response executeWithGzipFallback(Request request, Request.Builder requestBuilder, boolean gzipRequestBody) throws IntegrationException {
+        try {
+            Response response = super.execute(request);
+            if (gzipRequestBody && HttpStatus.SC_UNSUPPORTED_MEDIA_TYPE == response.getStatusCode()) {
+                // this endpoint will not take compressed bodies, so stop sending them to it
+                logger.debug(String.format("A gzip compressed request body was rejected by %s - sending it uncompressed.", request.getUrl().string()));
+                gzipRejectingTemplates.add(new BlackDuckUrl(request.getUrl()).parseTemplate());
+                closeQuietly(response);
+                removeContentEncoding(requestBuilder);
+                response = super.execute(requestBuilder.build());
+            }
+            return response;
+        } catch (IntegrationRestException e) {
+            throw transformException(e);
+        }
+    }
+
+    private void removeContentEncoding(Request.Builder requestBuilder) {
+        Map<String, String> headers = new HashMap<>(requestBuilder.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        requestBuilder.headers(headers);
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            logger.debug("Could not close the rejected response: " + e.getMessage());
+        }
+    }
+
+    private int extractStatusCode(IntegrationException e) {
+        if (e instanceof BlackDuckApiException) {
+            return ((BlackDuckApiException) e).getOriginalIntegrationRestException().getHttpStatusCode();
+        } else if (e instanceof IntegrationRestException) {
+            return ((IntegrationRestException) e).getHttpStatusCode();
+        }
+        return RequestMetric.NO_STATUS;
     }
 
     private IntegrationException transformException(IntegrationRestException e) {
@@ -149,4 +358,10 @@ public abstract class DefaultBlackDuckHttpClient extends AuthenticatingIntHttpCl
         }
     }
 
+    @FunctionalInterface
+    protected interface AuthenticationAttempt {
+        Response attempt() throws IntegrationException;
+
+    }
+
 }
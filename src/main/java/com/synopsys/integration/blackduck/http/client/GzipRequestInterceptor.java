@@ -0,0 +1,53 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.protocol.HttpContext;
+
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+
+/**
+ * Compresses the body of any request that was built with
+ * BlackDuckRequestBuilder.gzipBody(). The body is compressed as it is
+ * written, so it is never held in memory twice.
+ *
+ * This must run before the standard interceptors so the Content-Length of
+ * the uncompressed body is never sent.
+ */
+public class GzipRequestInterceptor implements HttpRequestInterceptor {
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        if (!(request instanceof HttpEntityEnclosingRequest) || !isGzipRequested(request)) {
+            return;
+        }
+
+        HttpEntityEnclosingRequest entityEnclosingRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = entityEnclosingRequest.getEntity();
+        // an entity that already has an encoding was compressed before (a redirect, for example)
+        if (null != entity && null == entity.getContentEncoding()) {
+            entityEnclosingRequest.setEntity(new GzipCompressingEntity(entity));
+        }
+    }
+
+    private boolean isGzipRequested(HttpRequest request) {
+        for (Header header : request.getHeaders(HttpHeaders.CONTENT_ENCODING)) {
+            if (BlackDuckRequestBuilder.GZIP.equalsIgnoreCase(header.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -7,12 +7,15 @@
  */
 package com.synopsys.integration.blackduck.http.client.cache;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.function.Consumer;
 
-import org.apache.commons.collections4.map.LRUMap;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 
@@ -22,16 +25,21 @@ import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 
 public class CacheableResponse implements Response {
-    private final Request request;
     private final Response response;
-    private final LRUMap<Request, Response> cache;
+    private final Consumer<CacheableResponse> contentReadListener;
 
-    private String stringResponse;
+    private volatile String stringResponse;
 
-    public CacheableResponse(Request request, Response response, LRUMap<Request, Response> cache) {
-        this.request = request;
+    public CacheableResponse(Request request, Response response, ResponseCache cache) {
+        this(response, cacheableResponse -> cache.put(request, cacheableResponse));
+    }
+
+    /**
+     * @param contentReadListener is given this response once its content has been successfully read as a string
+     */
+    public CacheableResponse(Response response, Consumer<CacheableResponse> contentReadListener) {
         this.response = response;
-        this.cache = cache;
+        this.contentReadListener = contentReadListener;
     }
 
     @Override
@@ -61,6 +69,15 @@ public class CacheableResponse implements Response {
 
     @Override
     public InputStream getContent() throws IntegrationException {
+        String content = stringResponse;
+        if (null == content && StringUtils.containsIgnoreCase(response.getContentType(), "json")) {
+            // json is what gets cached, so it is read as a string even when it is streamed
+            content = getContentString();
+        }
+        if (null != content) {
+            // the underlying stream has already been consumed
+            return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        }
         return response.getContent();
     }
 
@@ -71,7 +88,7 @@ public class CacheableResponse implements Response {
         }
 
         stringResponse = response.getContentString();
-        cache.put(request, this);
+        cacheIfSuccessful();
         return stringResponse;
     }
 
@@ -82,7 +99,7 @@ public class CacheableResponse implements Response {
         }
 
         stringResponse = response.getContentString(encoding);
-        cache.put(request, this);
+        cacheIfSuccessful();
         return stringResponse;
     }
 
@@ -131,4 +148,20 @@ public class CacheableResponse implements Response {
         response.throwExceptionForError();
     }
 
+    long estimateContentSize() {
+        String content = stringResponse;
+        if (null == content) {
+            return 0;
+        }
+        // the String object plus an array header, and up to two bytes per char depending on the JVM
+        return 40L + 2L * content.length();
+    }
+
+    private void cacheIfSuccessful() {
+        // error responses are read for their messages, but should never be served again
+        if (response.isStatusCodeSuccess()) {
+            contentReadListener.accept(this);
+        }
+    }
+
 }
@@ -7,115 +7,194 @@
  */
 package com.synopsys.integration.blackduck.http.client.cache;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
 
-import org.apache.commons.collections4.map.LRUMap;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
 
-import com.google.gson.Gson;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.exception.IntegrationException;
-import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpMethod;
-import com.synopsys.integration.rest.HttpUrl;
-import com.synopsys.integration.rest.proxy.ProxyInfo;
 import com.synopsys.integration.rest.request.Request;
-import com.synopsys.integration.rest.response.ErrorResponse;
 import com.synopsys.integration.rest.response.Response;
 
-public class CachingHttpClient implements BlackDuckHttpClient {
-    private final BlackDuckHttpClient blackDuckHttpClient;
-    private final LRUMap<Request, Response> cache;
+public class CachingHttpClient extends DelegatingBlackDuckHttpClient {
+    private final ResponseCache cache;
+    private final NotFoundCache notFoundCache;
 
     public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
-        this.blackDuckHttpClient = blackDuckHttpClient;
-        this.cache = new LRUMap<>(1000);
+        this(blackDuckHttpClient, new ResponseCache());
     }
 
-    public void emptyCache() {
-        cache.clear();
+    public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, int capacity, Duration timeToLive) {
+        this(blackDuckHttpClient, new ResponseCache(capacity, timeToLive));
     }
 
-    @Override
-    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
-        Request request = blackDuckRequest.getRequest();
-        if (HttpMethod.GET == request.getMethod() && cache.containsKey(request)) {
-            return cache.get(request);
-        }
-        Response response = blackDuckHttpClient.execute(blackDuckRequest);
+    /**
+     * @param maximumWeight the memory budget, in bytes, for the cached content
+     */
+    public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, int capacity, long maximumWeight, Duration timeToLive) {
+        this(blackDuckHttpClient, new ResponseCache(capacity, maximumWeight, timeToLive));
+    }
 
-        // the usage of the response will determine whether or not it is cached, because we can only cache responses IFF they are retrieved by string content
-        CacheableResponse cacheableResponse = new CacheableResponse(request, response, cache);
-        return cacheableResponse;
+    public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, ResponseCache cache) {
+        this(blackDuckHttpClient, cache, NotFoundCache.disabled());
     }
 
-    @Override
-    public Response attemptAuthentication() throws IntegrationException {
-        return blackDuckHttpClient.attemptAuthentication();
+    /**
+     * @param notFoundCache remembers 404 responses for the endpoints it was configured with
+     */
+    public CachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, ResponseCache cache, NotFoundCache notFoundCache) {
+        super(blackDuckHttpClient);
+        this.cache = cache;
+        this.notFoundCache = notFoundCache;
     }
 
-    @Override
-    public boolean isAlreadyAuthenticated(HttpUriRequest request) {
-        return blackDuckHttpClient.isAlreadyAuthenticated(request);
+    public void emptyCache() {
+        cache.clear();
+        notFoundCache.clear();
     }
 
-    @Override
-    public Optional<ErrorResponse> extractErrorResponse(String responseContent) {
-        return blackDuckHttpClient.extractErrorResponse(responseContent);
+    /**
+     * Unlike emptyCache(), this keeps the cached content so that anything
+     * with an ETag or Last-Modified header can be revalidated rather than
+     * downloaded again.
+     */
+    public void expireCache() {
+        cache.expireAll();
     }
 
-    @Override
-    public void handleErrorResponse(HttpUriRequest request, Response response) {
-        blackDuckHttpClient.handleErrorResponse(request, response);
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    public NotFoundCache getNotFoundCache() {
+        return notFoundCache;
     }
 
     @Override
     public void throwExceptionForError(Response response) throws IntegrationException {
-        blackDuckHttpClient.throwExceptionForError(response);
+        if (response instanceof NotFoundResponse) {
+            ((NotFoundResponse) response).throwExceptionForError(blackDuckHttpClient);
+        } else {
+            super.throwExceptionForError(response);
+        }
     }
 
     @Override
-    public HttpUrl getBlackDuckUrl() {
-        return blackDuckHttpClient.getBlackDuckUrl();
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        if (HttpMethod.GET != request.getMethod()) {
+            return executeChange(blackDuckRequest, request);
+        }
+
+        if (isFreshAnswerRequired(request)) {
+            return executeFresh(blackDuckRequest, request);
+        }
+
+        Optional<NotFoundResponse> notFoundResponse = notFoundCache.get(request);
+        if (notFoundResponse.isPresent()) {
+            return notFoundResponse.get();
+        }
+
+        Optional<Response> cachedResponse = cache.get(request);
+        if (cachedResponse.isPresent()) {
+            return cachedResponse.get();
+        }
+
+        Optional<ResponseCache.CacheEntry> staleEntry = cache.getStale(request);
+        if (staleEntry.isPresent()) {
+            return revalidate(blackDuckRequest, request, staleEntry.get());
+        }
+        long invalidationCount = cache.getInvalidationCount();
+        Response response = blackDuckHttpClient.execute(blackDuckRequest);
+        if (isRememberedWhenNotFound(request, response)) {
+            return rememberNotFound(request, response);
+        }
+
+        // the usage of the response will determine whether or not it is cached, because we can only cache responses IFF they are retrieved by string content
+        return createCacheableResponse(request, response, invalidationCount);
     }
 
-    @Override
-    public String getUserAgentString() {
-        return blackDuckHttpClient.getUserAgentString();
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response executeChange(BlackDuckRequest<T, U> blackDuckRequest, Request request) throws IntegrationException {
+        try {
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        } finally {
+            // even a failed change may have been applied, so always invalidate
+            cache.invalidate(request.getUrl());
+            notFoundCache.invalidate(request.getUrl());
+        }
     }
 
-    @Override
-    public HttpClientBuilder getHttpClientBuilder() {
-        return blackDuckHttpClient.getHttpClientBuilder();
+    /**
+     * Nothing cached is used, but a 404 is still remembered and any other
+     * answer clears a remembered 404, so later callers benefit from it.
+     */
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response executeFresh(BlackDuckRequest<T, U> blackDuckRequest, Request request) throws IntegrationException {
+        Response response = blackDuckHttpClient.execute(blackDuckRequest);
+        if (isRememberedWhenNotFound(request, response)) {
+            return rememberNotFound(request, response);
+        }
+        if (notFoundCache.isEnabled()) {
+            notFoundCache.remove(request);
+        }
+        return response;
     }
 
-    @Override
-    public int getTimeoutInSeconds() {
-        return blackDuckHttpClient.getTimeoutInSeconds();
+    private boolean isFreshAnswerRequired(Request request) {
+        return StringUtils.containsIgnoreCase(request.getHeaders().get(HttpHeaders.CACHE_CONTROL), BlackDuckRequestBuilder.NO_CACHE);
     }
 
-    @Override
-    public boolean isAlwaysTrustServerCertificate() {
-        return blackDuckHttpClient.isAlwaysTrustServerCertificate();
+    private boolean isRememberedWhenNotFound(Request request, Response response) {
+        return HttpStatus.SC_NOT_FOUND == response.getStatusCode() && notFoundCache.getTimeToLive(request.getUrl()).isPresent();
     }
 
-    @Override
-    public ProxyInfo getProxyInfo() {
-        return blackDuckHttpClient.getProxyInfo();
+    private NotFoundResponse rememberNotFound(Request request, Response response) throws IntegrationException {
+        NotFoundResponse notFoundResponse = NotFoundResponse.buffer(response);
+        notFoundCache.put(request, notFoundResponse);
+        return notFoundResponse;
     }
 
-    @Override
-    public IntLogger getLogger() {
-        return blackDuckHttpClient.getLogger();
+    private CacheableResponse createCacheableResponse(Request request, Response response, long invalidationCount) {
+        return new CacheableResponse(response, cacheableResponse -> {
+            // a GET that was in flight during a PUT, POST or DELETE may hold content from before the change
+            if (cache.getInvalidationCount() == invalidationCount) {
+                cache.put(request, cacheableResponse);
+            }
+        });
     }
 
-    @Override
-    public Gson getGson() {
-        return blackDuckHttpClient.getGson();
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response revalidate(BlackDuckRequest<T, U> blackDuckRequest, Request request, ResponseCache.CacheEntry staleEntry) throws IntegrationException {
+        BlackDuckRequestBuilder conditionalRequestBuilder = new BlackDuckRequestBuilder(blackDuckRequest);
+        staleEntry.getETag().ifPresent(eTag -> conditionalRequestBuilder.addHeader(HttpHeaders.IF_NONE_MATCH, eTag));
+        staleEntry.getLastModified().ifPresent(lastModified -> conditionalRequestBuilder.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        BlackDuckRequest<T, U> conditionalRequest = new BlackDuckRequest<>(conditionalRequestBuilder, blackDuckRequest.getUrlResponse());
+
+        long invalidationCount = cache.getInvalidationCount();
+        Response response = blackDuckHttpClient.execute(conditionalRequest);
+        if (HttpStatus.SC_NOT_MODIFIED == response.getStatusCode()) {
+            // nothing was transferred, so the content we already hold is still the answer
+            try {
+                response.close();
+            } catch (IOException e) {
+                throw new BlackDuckIntegrationException(e.getMessage(), e);
+            }
+            if (cache.getInvalidationCount() == invalidationCount) {
+                cache.refresh(request, staleEntry);
+            }
+            return staleEntry.getResponse();
+        }
+
+        return createCacheableResponse(request, response, invalidationCount);
     }
 
 }
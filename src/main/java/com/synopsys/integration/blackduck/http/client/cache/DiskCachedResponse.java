@@ -0,0 +1,159 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * A successful response served from a DiskResponseCache. There is no
+ * connection behind it, so the request and actual response are rebuilt from
+ * the request it answers and the cached entry.
+ */
+public class DiskCachedResponse implements Response {
+    private final Request request;
+    private final DiskResponseCache.DiskCacheEntry entry;
+    private final Map<String, String> headers = new HashMap<>();
+
+    public DiskCachedResponse(Request request, DiskResponseCache.DiskCacheEntry entry) {
+        this.request = request;
+        this.entry = entry;
+        entry.getETag().ifPresent(eTag -> headers.put(HttpHeaders.ETAG, eTag));
+        entry.getLastModified().ifPresent(lastModified -> headers.put(HttpHeaders.LAST_MODIFIED, lastModified));
+        headers.put(HttpHeaders.CONTENT_TYPE, entry.getContentType());
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        RequestBuilder requestBuilder = RequestBuilder.create(request.getMethod().name())
+                                            .setUri(request.getUrl().string());
+        request.getQueryParameters().forEach((name, values) -> values.forEach(value -> requestBuilder.addParameter(name, value)));
+        request.getHeaders().forEach(requestBuilder::addHeader);
+        return requestBuilder.build();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.SC_OK;
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return true;
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return false;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return "OK";
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(entry.getContent().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String getContentString() {
+        return entry.getContent();
+    }
+
+    @Override
+    public String getContentString(Charset encoding) {
+        return entry.getContent();
+    }
+
+    @Override
+    public Long getContentLength() {
+        return (long) entry.getContent().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public String getContentType() {
+        return entry.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        CachedHttpResponse actualResponse = new CachedHttpResponse();
+        headers.forEach(actualResponse::addHeader);
+        ByteArrayEntity entity = new ByteArrayEntity(entry.getContent().getBytes(StandardCharsets.UTF_8));
+        if (StringUtils.isNotBlank(entry.getContentType())) {
+            entity.setContentType(entry.getContentType());
+        }
+        actualResponse.setEntity(entity);
+        return actualResponse;
+    }
+
+    @Override
+    public void close() {
+        // nothing is held open
+    }
+
+    @Override
+    public long getLastModified() {
+        Date lastModified = entry.getLastModified().map(DateUtils::parseDate).orElse(null);
+        return null == lastModified ? 0L : lastModified.getTime();
+    }
+
+    @Override
+    public void throwExceptionForError() {
+        // only successful responses are cached
+    }
+
+    private static class CachedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        public CachedHttpResponse() {
+            super(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        }
+
+        @Override
+        public void close() {
+            // nothing is held open
+        }
+
+    }
+
+}
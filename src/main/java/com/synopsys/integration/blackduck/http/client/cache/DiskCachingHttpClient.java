@@ -0,0 +1,106 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Serves GET responses from a DiskResponseCache so that short-lived processes
+ * can reuse what earlier runs already fetched. It can be combined with the
+ * in-memory tier: new CachingHttpClient(new DiskCachingHttpClient(...)).
+ * A request sent with no-cache skips the disk but still stores its answer.
+ */
+public class DiskCachingHttpClient extends DelegatingBlackDuckHttpClient {
+    private final DiskResponseCache diskResponseCache;
+
+    public DiskCachingHttpClient(BlackDuckHttpClient blackDuckHttpClient, DiskResponseCache diskResponseCache) {
+        super(blackDuckHttpClient);
+        this.diskResponseCache = diskResponseCache;
+    }
+
+    public DiskResponseCache getDiskResponseCache() {
+        return diskResponseCache;
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        if (HttpMethod.GET != request.getMethod()) {
+            return executeChange(blackDuckRequest, request);
+        }
+
+        Optional<DiskResponseCache.DiskCacheEntry> cachedEntry = isFreshAnswerRequired(request) ? Optional.empty() : diskResponseCache.read(request);
+        if (cachedEntry.isPresent()) {
+            DiskResponseCache.DiskCacheEntry entry = cachedEntry.get();
+            if (!diskResponseCache.isExpired(entry)) {
+                return new DiskCachedResponse(request, entry);
+            } else if (entry.hasValidators()) {
+                return revalidate(blackDuckRequest, request, entry);
+            }
+        }
+
+        Response response = blackDuckHttpClient.execute(blackDuckRequest);
+        return createCacheableResponse(request, response);
+    }
+
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response revalidate(BlackDuckRequest<T, U> blackDuckRequest, Request request, DiskResponseCache.DiskCacheEntry staleEntry) throws IntegrationException {
+        BlackDuckRequestBuilder conditionalRequestBuilder = new BlackDuckRequestBuilder(blackDuckRequest);
+        staleEntry.getETag().ifPresent(eTag -> conditionalRequestBuilder.addHeader(HttpHeaders.IF_NONE_MATCH, eTag));
+        staleEntry.getLastModified().ifPresent(lastModified -> conditionalRequestBuilder.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        BlackDuckRequest<T, U> conditionalRequest = new BlackDuckRequest<>(conditionalRequestBuilder, blackDuckRequest.getUrlResponse());
+
+        Response response = blackDuckHttpClient.execute(conditionalRequest);
+        if (HttpStatus.SC_NOT_MODIFIED == response.getStatusCode()) {
+            try {
+                response.close();
+            } catch (IOException e) {
+                throw new BlackDuckIntegrationException(e.getMessage(), e);
+            }
+            DiskResponseCache.DiskCacheEntry refreshedEntry = diskResponseCache.refresh(request, staleEntry);
+            return new DiskCachedResponse(request, refreshedEntry);
+        }
+
+        return createCacheableResponse(request, response);
+    }
+
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> Response executeChange(BlackDuckRequest<T, U> blackDuckRequest, Request request) throws IntegrationException {
+        try {
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        } finally {
+            // even a failed change may have been applied, so always invalidate - other processes see it too
+            diskResponseCache.invalidate(request.getUrl());
+        }
+    }
+
+    private boolean isFreshAnswerRequired(Request request) {
+        return StringUtils.containsIgnoreCase(request.getHeaders().get(HttpHeaders.CACHE_CONTROL), BlackDuckRequestBuilder.NO_CACHE);
+    }
+
+    private Response createCacheableResponse(Request request, Response response) {
+        // like the in-memory cache, only content that is actually read as a string is stored
+        return new CacheableResponse(response, cacheableResponse -> diskResponseCache.write(request, cacheableResponse));
+    }
+
+}
@@ -0,0 +1,393 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Stores successful GET responses as files in a directory so they survive
+ * the JVM and can be shared by several processes on the same machine. Each
+ * entry is written to a temporary file and atomically renamed into place, so
+ * a reader in any process sees either a complete old entry or a complete new
+ * one - no locks are needed.
+ *
+ * Entries are keyed by the request only, not by the credentials used, so a
+ * cache directory should never be shared between different Black Duck users.
+ */
+public class DiskResponseCache {
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_EXTENSION = ".entry";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final long ABANDONED_TEMP_FILE_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final Path cacheDirectory;
+    private final Duration timeToLive;
+    private final IntLogger logger;
+    private final LongSupplier currentTimeMillis;
+
+    public DiskResponseCache(File cacheDirectory, Duration timeToLive, IntLogger logger) throws IntegrationException {
+        this(cacheDirectory, timeToLive, logger, System::currentTimeMillis);
+    }
+
+    public DiskResponseCache(File cacheDirectory, Duration timeToLive, IntLogger logger, LongSupplier currentTimeMillis) throws IntegrationException {
+        if (null == timeToLive || timeToLive.isNegative()) {
+            throw new IllegalArgumentException("The cache time to live must be zero or positive.");
+        }
+        this.cacheDirectory = cacheDirectory.toPath();
+        this.timeToLive = timeToLive;
+        this.logger = logger;
+        this.currentTimeMillis = currentTimeMillis;
+
+        try {
+            Files.createDirectories(this.cacheDirectory);
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not create the response cache directory %s: %s", cacheDirectory.getAbsolutePath(), e.getMessage()), e);
+        }
+    }
+
+    public Optional<DiskCacheEntry> read(Request request) {
+        String key = createKey(request);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entryPath(key));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.debug(String.format("Could not read the cached response for %s: %s", request.getUrl().string(), e.getMessage()));
+            return Optional.empty();
+        }
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (FORMAT_VERSION != input.readInt()) {
+                return Optional.empty();
+            }
+            long expiresAt = input.readLong();
+            String storedKey = input.readUTF();
+            if (!key.equals(storedKey)) {
+                return Optional.empty();
+            }
+            String eTag = input.readUTF();
+            String lastModified = input.readUTF();
+            String contentType = input.readUTF();
+            int contentOffset = bytes.length - input.available();
+            String content = new String(bytes, contentOffset, bytes.length - contentOffset, StandardCharsets.UTF_8);
+
+            return Optional.of(new DiskCacheEntry(content, eTag, lastModified, contentType, expiresAt));
+        } catch (IOException e) {
+            // a truncated or foreign file - the next successful response will replace it
+            logger.debug(String.format("Ignoring an unreadable cached response for %s: %s", request.getUrl().string(), e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A failure to write is logged and otherwise ignored - the cache should
+     * never be the reason a request fails.
+     */
+    public void write(Request request, Response response) {
+        try {
+            String eTag = StringUtils.defaultString(response.getHeaderValue(HttpHeaders.ETAG));
+            String lastModified = StringUtils.defaultString(response.getHeaderValue(HttpHeaders.LAST_MODIFIED));
+            String contentType = StringUtils.defaultString(response.getContentType());
+            DiskCacheEntry entry = new DiskCacheEntry(response.getContentString(), eTag, lastModified, contentType, calculateExpiration());
+            write(request, entry);
+        } catch (IntegrationException | IOException e) {
+            logger.debug(String.format("Could not cache the response for %s: %s", request.getUrl().string(), e.getMessage()));
+        }
+    }
+
+    /**
+     * The server confirmed the entry is still current, so it is fresh again
+     * for another full time to live.
+     */
+    public DiskCacheEntry refresh(Request request, DiskCacheEntry entry) {
+        DiskCacheEntry refreshed = new DiskCacheEntry(entry.getContent(), entry.getETag().orElse(""), entry.getLastModified().orElse(""), entry.getContentType(), calculateExpiration());
+        try {
+            write(request, refreshed);
+        } catch (IOException e) {
+            logger.debug(String.format("Could not refresh the cached response for %s: %s", request.getUrl().string(), e.getMessage()));
+        }
+        return refreshed;
+    }
+
+    public void remove(Request request) {
+        try {
+            Files.deleteIfExists(entryPath(createKey(request)));
+        } catch (IOException e) {
+            logger.debug(String.format("Could not remove the cached response for %s: %s", request.getUrl().string(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Removes everything a change to the given url could have made stale, as
+     * ResponseCache.invalidate does - the url itself, anything beneath it and
+     * the collections above it. Every entry's key has to be read to find its
+     * url, which is fine for a change but would not be for a read.
+     *
+     * @return the number of entries removed
+     */
+    public int invalidate(HttpUrl url) {
+        String changedPath = ResponseCache.removeQuery(url.string());
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + ENTRY_EXTENSION)) {
+            for (Path file : files) {
+                Optional<String> cachedPath = readKey(file).map(this::extractPath);
+                if (cachedPath.isPresent() && (ResponseCache.isSameOrBeneath(cachedPath.get(), changedPath) || ResponseCache.isSameOrBeneath(changedPath, cachedPath.get()))) {
+                    if (Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug(String.format("Could not invalidate the cached responses for %s: %s", url.string(), e.getMessage()));
+        }
+        return removed;
+    }
+
+    public void clear() throws IntegrationException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "*" + ENTRY_EXTENSION)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not clear the response cache directory %s: %s", cacheDirectory, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Deletes the entries that have expired and cannot be revalidated, along
+     * with any temporary files abandoned by a process that died mid-write.
+     * @return the number of files deleted
+     */
+    public int purgeExpired() throws IntegrationException {
+        long now = currentTimeMillis.getAsLong();
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                boolean purge = false;
+                if (fileName.endsWith(ENTRY_EXTENSION)) {
+                    purge = isExpiredWithoutValidators(file, now);
+                } else if (fileName.endsWith(TEMP_EXTENSION)) {
+                    purge = now - Files.getLastModifiedTime(file).toMillis() > ABANDONED_TEMP_FILE_MILLIS;
+                }
+
+                if (purge && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not purge the response cache directory %s: %s", cacheDirectory, e.getMessage()), e);
+        }
+        return deleted;
+    }
+
+    public boolean isExpired(DiskCacheEntry entry) {
+        return entry.isExpired(currentTimeMillis.getAsLong());
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory.toFile();
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * The method, the url with its sorted query parameters, and the accepted
+     * media type together identify what the server would send back.
+     */
+    public String createKey(Request request) {
+        StringBuilder key = new StringBuilder();
+        key.append(request.getMethod());
+        key.append(' ');
+        key.append(request.getUrl().string());
+
+        Map<String, Set<String>> sortedParameters = new TreeMap<>();
+        request.getQueryParameters().forEach((name, values) -> sortedParameters.put(name, new TreeSet<>(values)));
+        char separator = '?';
+        for (Map.Entry<String, Set<String>> parameter : sortedParameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(parameter.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+
+        String accept = request.getHeaders().get(HttpHeaders.ACCEPT);
+        if (StringUtils.isNotBlank(accept)) {
+            key.append(" accept=").append(accept);
+        }
+        return key.toString();
+    }
+
+    private long calculateExpiration() {
+        return currentTimeMillis.getAsLong() + timeToLive.toMillis();
+    }
+
+    private void write(Request request, DiskCacheEntry entry) throws IOException {
+        String key = createKey(request);
+        Path target = entryPath(key);
+        Path temp = Files.createTempFile(cacheDirectory, target.getFileName().toString(), TEMP_EXTENSION);
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(entry.getExpiresAt());
+                output.writeUTF(key);
+                output.writeUTF(entry.getETag().orElse(""));
+                output.writeUTF(entry.getLastModified().orElse(""));
+                output.writeUTF(entry.getContentType());
+                output.write(entry.getContent().getBytes(StandardCharsets.UTF_8));
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Optional<String> readKey(Path file) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file)); DataInputStream input = new DataInputStream(inputStream)) {
+            if (FORMAT_VERSION != input.readInt()) {
+                return Optional.empty();
+            }
+            input.readLong();
+            return Optional.of(input.readUTF());
+        } catch (IOException e) {
+            // removed or being replaced by another process
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The url part of a key from createKey, without its query.
+     */
+    private String extractPath(String key) {
+        String url = StringUtils.substringBefore(StringUtils.substringAfter(key, " "), " ");
+        return ResponseCache.removeQuery(url);
+    }
+
+    private boolean isExpiredWithoutValidators(Path file, long now) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file)); DataInputStream input = new DataInputStream(inputStream)) {
+            if (FORMAT_VERSION != input.readInt()) {
+                return true;
+            }
+            long expiresAt = input.readLong();
+            input.readUTF();
+            String eTag = input.readUTF();
+            String lastModified = input.readUTF();
+            return now >= expiresAt && StringUtils.isAllBlank(eTag, lastModified);
+        } catch (IOException e) {
+            // another process may be replacing it right now, so leave it alone
+            return false;
+        }
+    }
+
+    private Path entryPath(String key) {
+        return cacheDirectory.resolve(sha256(key) + ENTRY_EXTENSION);
+    }
+
+    private String sha256(String key) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digest = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class DiskCacheEntry {
+        private final String content;
+        private final String eTag;
+        private final String lastModified;
+        private final String contentType;
+        private final long expiresAt;
+
+        public DiskCacheEntry(String content, String eTag, String lastModified, String contentType, long expiresAt) {
+            this.content = content;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public Optional<String> getETag() {
+            return Optional.ofNullable(eTag).filter(StringUtils::isNotBlank);
+        }
+
+        public Optional<String> getLastModified() {
+            return Optional.ofNullable(lastModified).filter(StringUtils::isNotBlank);
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean hasValidators() {
+            return getETag().isPresent() || getLastModified().isPresent();
+        }
+
+        public boolean isExpired(long currentTimeMillis) {
+            return currentTimeMillis >= expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Remembers 404 responses for a short time, but only for the endpoints it
+ * was configured with - a path such as /api/developer-scans covers every url
+ * beneath it, and the longest matching path decides the time to live.
+ *
+ * Misses are keyed by url and query parameters alone, so a request that asks
+ * for a fresh answer still replaces or clears the remembered miss.
+ */
+public class NotFoundCache {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final Map<String, NotFoundEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Duration> timeToLiveByPath;
+    private final int capacity;
+    private final LongSupplier nanoTime;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    public static NotFoundCache disabled() {
+        return new NotFoundCache(Collections.emptyMap());
+    }
+
+    public static NotFoundCache forPaths(Duration timeToLive, String... paths) {
+        Map<String, Duration> timeToLiveByPath = new HashMap<>();
+        for (String path : paths) {
+            timeToLiveByPath.put(path, timeToLive);
+        }
+        return new NotFoundCache(timeToLiveByPath);
+    }
+
+    public NotFoundCache(Map<String, Duration> timeToLiveByPath) {
+        this(timeToLiveByPath, DEFAULT_CAPACITY, System::nanoTime);
+    }
+
+    public NotFoundCache(Map<String, Duration> timeToLiveByPath, int capacity, LongSupplier nanoTime) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The cache capacity must be greater than zero.");
+        }
+        this.timeToLiveByPath = new TreeMap<>();
+        timeToLiveByPath.forEach((path, timeToLive) -> {
+            if (null == timeToLive || timeToLive.isZero() || timeToLive.isNegative()) {
+                throw new IllegalArgumentException(String.format("The not found time to live for %s must be positive.", path));
+            }
+            this.timeToLiveByPath.put(ResponseCache.removeQuery(path), timeToLive);
+        });
+        this.capacity = capacity;
+        this.nanoTime = nanoTime;
+    }
+
+    public boolean isEnabled() {
+        return !timeToLiveByPath.isEmpty();
+    }
+
+    public Optional<Duration> getTimeToLive(HttpUrl url) {
+        String path = extractPath(url.string());
+        Duration timeToLive = null;
+        int longestMatch = -1;
+        for (Map.Entry<String, Duration> configured : timeToLiveByPath.entrySet()) {
+            String configuredPath = configured.getKey();
+            if (configuredPath.length() > longestMatch && ResponseCache.isSameOrBeneath(path, configuredPath)) {
+                timeToLive = configured.getValue();
+                longestMatch = configuredPath.length();
+            }
+        }
+        return Optional.ofNullable(timeToLive);
+    }
+
+    public Optional<NotFoundResponse> get(Request request) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        String key = createKey(request);
+        NotFoundEntry entry = entries.get(key);
+        if (null == entry) {
+            return Optional.empty();
+        }
+        if (entry.isExpired(nanoTime.getAsLong())) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+
+        hitCount.increment();
+        return Optional.of(entry.getResponse());
+    }
+
+    /**
+     * Remembers the miss if the request's endpoint is configured for it.
+     */
+    public void put(Request request, NotFoundResponse response) {
+        Optional<Duration> timeToLive = getTimeToLive(request.getUrl());
+        if (!timeToLive.isPresent()) {
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+        if (entries.size() >= capacity) {
+            entries.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+            if (entries.size() >= capacity) {
+                // every remembered miss is short lived, so just skip this one
+                return;
+            }
+        }
+        entries.put(createKey(request), new NotFoundEntry(response, now + timeToLive.get().toNanos()));
+    }
+
+    public void remove(Request request) {
+        entries.remove(createKey(request));
+    }
+
+    /**
+     * Forgets any miss a change to the given url might have turned into a hit.
+     */
+    public void invalidate(HttpUrl url) {
+        String changedPath = ResponseCache.removeQuery(url.string());
+        entries.keySet().removeIf(key -> {
+            String cachedPath = ResponseCache.removeQuery(key);
+            return ResponseCache.isSameOrBeneath(cachedPath, changedPath) || ResponseCache.isSameOrBeneath(changedPath, cachedPath);
+        });
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    private String createKey(Request request) {
+        StringBuilder key = new StringBuilder(request.getUrl().string());
+        Map<String, Set<String>> queryParameters = new TreeMap<>(request.getQueryParameters());
+        String separator = request.getUrl().string().contains("?") ? "&" : "?";
+        for (Map.Entry<String, Set<String>> queryParameter : queryParameters.entrySet()) {
+            for (String value : new TreeSet<>(queryParameter.getValue())) {
+                key.append(separator).append(queryParameter.getKey()).append('=').append(value);
+                separator = "&";
+            }
+        }
+        return key.toString();
+    }
+
+    private String extractPath(String url) {
+        String path = ResponseCache.removeQuery(url);
+        if (path.contains("://")) {
+            path = "/" + StringUtils.substringAfter(StringUtils.substringAfter(path, "://"), "/");
+        }
+        return path;
+    }
+
+    private static class NotFoundEntry {
+        private final NotFoundResponse response;
+        private final long expiresAt;
+
+        public NotFoundEntry(NotFoundResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        public NotFoundResponse getResponse() {
+            return response;
+        }
+
+        public boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+    }
+
+}
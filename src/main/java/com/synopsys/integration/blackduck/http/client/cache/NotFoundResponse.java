@@ -0,0 +1,157 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * A 404 response that can be served again from a NotFoundCache, so a cached
+ * miss costs no round trip. Every caller gets its own exception, built from
+ * the buffered status and content, since exceptions are not safe to share.
+ */
+public class NotFoundResponse implements Response {
+    private final Response response;
+    private final IntegrationRestException restException;
+    private final String content;
+
+    /**
+     * Reads the error and closes the given response - it is fully buffered.
+     */
+    public static NotFoundResponse buffer(Response response) throws IntegrationException {
+        IntegrationRestException restException = null;
+        try {
+            response.throwExceptionForError();
+        } catch (IntegrationRestException e) {
+            restException = e;
+        }
+
+        if (null == restException) {
+            throw new IllegalArgumentException("Only an error response can be buffered as not found.");
+        }
+
+        try {
+            response.close();
+        } catch (IOException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+        return new NotFoundResponse(response, restException);
+    }
+
+    private NotFoundResponse(Response response, IntegrationRestException restException) {
+        this.response = response;
+        this.restException = restException;
+        this.content = null == restException.getHttpResponseContent() ? "" : restException.getHttpResponseContent();
+    }
+
+    /**
+     * Throws what the client would have thrown for the original response.
+     */
+    public void throwExceptionForError(BlackDuckHttpClient blackDuckHttpClient) throws IntegrationException {
+        blackDuckHttpClient.throwExceptionForError(this);
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        return response.getRequest();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return false;
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return true;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return response.getStatusMessage();
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String getContentString() {
+        return content;
+    }
+
+    @Override
+    public String getContentString(Charset encoding) {
+        return content;
+    }
+
+    @Override
+    public Long getContentLength() {
+        return (long) content.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return response.getContentEncoding();
+    }
+
+    @Override
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return response.getHeaderValue(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        return response.getActualResponse();
+    }
+
+    @Override
+    public void close() {
+        // the original response was closed once it was buffered
+    }
+
+    @Override
+    public long getLastModified() throws IntegrationException {
+        return response.getLastModified();
+    }
+
+    @Override
+    public void throwExceptionForError() throws IntegrationRestException {
+        throw new IntegrationRestException(restException.getHttpMethod(), restException.getHttpUrl(), restException.getHttpStatusCode(), restException.getHttpStatusMessage(), restException.getHttpResponseContent(),
+            restException.getMessage());
+    }
+
+}
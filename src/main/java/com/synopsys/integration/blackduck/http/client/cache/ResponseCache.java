@@ -0,0 +1,405 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * A thread-safe store of responses, keyed by request. Reads never lock - they
+ * go straight to a ConcurrentHashMap. Once the capacity or the weight budget
+ * is exceeded, a single writer evicts expired entries and then the least
+ * recently used ones, while any other writer that overflows at the same
+ * moment simply moves on.
+ *
+ * An expired entry that carries an ETag or Last-Modified validator is kept
+ * around as stale, so it can be revalidated with a conditional request
+ * instead of being downloaded again.
+ */
+public class ResponseCache {
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final long UNLIMITED_WEIGHT = Long.MAX_VALUE;
+    public static final Duration NO_EXPIRATION = Duration.ZERO;
+
+    // the entry, the map node, the request key and the response wrappers
+    public static final long ENTRY_OVERHEAD_BYTES = 512;
+
+    private final Map<Request, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int capacity;
+    private final long maximumWeight;
+    private final Duration defaultTimeToLive;
+    private final LongSupplier nanoTime;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder revalidationCount = new LongAdder();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public static long estimateRetainedSize(Response response) {
+        if (response instanceof CacheableResponse) {
+            return ENTRY_OVERHEAD_BYTES + ((CacheableResponse) response).estimateContentSize();
+        }
+        return ENTRY_OVERHEAD_BYTES;
+    }
+
+    public ResponseCache() {
+        this(DEFAULT_CAPACITY, NO_EXPIRATION);
+    }
+
+    public ResponseCache(int capacity, Duration defaultTimeToLive) {
+        this(capacity, UNLIMITED_WEIGHT, defaultTimeToLive);
+    }
+
+    public ResponseCache(int capacity, long maximumWeight, Duration defaultTimeToLive) {
+        this(capacity, maximumWeight, defaultTimeToLive, System::nanoTime);
+    }
+
+    public ResponseCache(int capacity, Duration defaultTimeToLive, LongSupplier nanoTime) {
+        this(capacity, UNLIMITED_WEIGHT, defaultTimeToLive, nanoTime);
+    }
+
+    public ResponseCache(int capacity, long maximumWeight, Duration defaultTimeToLive, LongSupplier nanoTime) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The cache capacity must be greater than zero.");
+        }
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("The cache maximum weight must be greater than zero.");
+        }
+        if (null == defaultTimeToLive || defaultTimeToLive.isNegative()) {
+            throw new IllegalArgumentException("The cache time to live must be zero (no expiration) or positive.");
+        }
+        this.capacity = capacity;
+        this.maximumWeight = maximumWeight;
+        this.defaultTimeToLive = defaultTimeToLive;
+        this.nanoTime = nanoTime;
+    }
+
+    public Optional<Response> get(Request request) {
+        CacheEntry entry = entries.get(request);
+        if (null == entry) {
+            missCount.increment();
+            return Optional.empty();
+        }
+
+        long now = nanoTime.getAsLong();
+        if (entry.isExpired(now)) {
+            if (!entry.hasValidators()) {
+                remove(request, entry);
+            }
+            missCount.increment();
+            return Optional.empty();
+        }
+
+        entry.touch(now);
+        hitCount.increment();
+        return Optional.of(entry.getResponse());
+    }
+
+    /**
+     * Returns an expired entry that can still be revalidated with the server,
+     * if there is one.
+     */
+    public Optional<CacheEntry> getStale(Request request) {
+        CacheEntry entry = entries.get(request);
+        if (null != entry && entry.hasValidators() && entry.isExpired(nanoTime.getAsLong())) {
+            return Optional.of(entry);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The server confirmed the entry is still current, so it is fresh again
+     * for another full time to live.
+     */
+    public void refresh(Request request, CacheEntry entry) {
+        long now = nanoTime.getAsLong();
+        entry.renew(now);
+        entry.touch(now);
+        if (null == entries.putIfAbsent(request, entry)) {
+            // it was evicted while we were revalidating
+            weight.addAndGet(entry.getWeight());
+            evictIfNecessary();
+        }
+        revalidationCount.increment();
+    }
+
+    /**
+     * Marks every entry as expired. Entries with validators will be
+     * revalidated on their next use, the rest will be fetched again.
+     */
+    public void expireAll() {
+        long now = nanoTime.getAsLong();
+        entries.forEach((request, entry) -> entry.expire(now));
+    }
+
+    public void put(Request request, Response response) {
+        put(request, response, defaultTimeToLive);
+    }
+
+    public void put(Request request, Response response, Duration timeToLive) {
+        long now = nanoTime.getAsLong();
+        CacheEntry entry = new CacheEntry(response, now, timeToLive, estimateRetainedSize(response));
+        if (entry.getWeight() > maximumWeight) {
+            // caching it would only flush everything else out
+            remove(request);
+            return;
+        }
+
+        weight.addAndGet(entry.getWeight());
+        CacheEntry previous = entries.put(request, entry);
+        if (null != previous) {
+            weight.addAndGet(-previous.getWeight());
+        }
+
+        evictIfNecessary();
+    }
+
+    public void remove(Request request) {
+        CacheEntry removed = entries.remove(request);
+        if (null != removed) {
+            weight.addAndGet(-removed.getWeight());
+        }
+    }
+
+    /**
+     * Removes everything a change to the given url could have made stale: the
+     * url itself, anything beneath it, and the collections above it. A change
+     * to /api/projects/1 removes /api/projects/1, /api/projects/1/versions
+     * and every cached page of /api/projects, but not /api/projects/2.
+     *
+     * @return the number of entries removed
+     */
+    public int invalidate(HttpUrl url) {
+        invalidationCount.incrementAndGet();
+        String changedPath = removeQuery(url.string());
+        int removed = 0;
+        for (Map.Entry<Request, CacheEntry> cached : entries.entrySet()) {
+            String cachedPath = removeQuery(cached.getKey().getUrl().string());
+            if (isSameOrBeneath(cachedPath, changedPath) || isSameOrBeneath(changedPath, cachedPath)) {
+                if (remove(cached.getKey(), cached.getValue())) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        entries.forEach(this::remove);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The estimated number of bytes retained by the cached responses.
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getDefaultTimeToLive() {
+        return defaultTimeToLive;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getRevalidationCount() {
+        return revalidationCount.sum();
+    }
+
+    /**
+     * The number of times invalidate has been called. A response fetched
+     * before an invalidation should not be cached after it.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    private boolean remove(Request request, CacheEntry entry) {
+        if (entries.remove(request, entry)) {
+            weight.addAndGet(-entry.getWeight());
+            return true;
+        }
+        return false;
+    }
+
+    static String removeQuery(String url) {
+        return StringUtils.removeEnd(StringUtils.substringBefore(url, "?"), "/");
+    }
+
+    static boolean isSameOrBeneath(String path, String ancestorPath) {
+        return path.equals(ancestorPath) || path.startsWith(ancestorPath + "/");
+    }
+
+    private boolean isOverBudget() {
+        return entries.size() > capacity || weight.get() > maximumWeight;
+    }
+
+    private void evictIfNecessary() {
+        if (!isOverBudget() || !evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            long now = nanoTime.getAsLong();
+            entries.forEach((request, entry) -> {
+                if (entry.isExpired(now) && !entry.hasValidators() && remove(request, entry)) {
+                    evictionCount.increment();
+                }
+            });
+
+            // evict a small batch past the limits so a full cache doesn't sort on every put
+            int targetSize = capacity - capacity / 16;
+            long targetWeight = maximumWeight - maximumWeight / 16;
+            if (entries.size() <= targetSize && weight.get() <= targetWeight) {
+                return;
+            }
+
+            // readers keep touching entries, so sort on a copy of the access times
+            List<EvictionCandidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((request, entry) -> candidates.add(new EvictionCandidate(request, entry)));
+            candidates.sort(Comparator.comparingLong(EvictionCandidate::getLastAccess));
+            for (EvictionCandidate leastRecentlyUsed : candidates) {
+                if (entries.size() <= targetSize && weight.get() <= targetWeight) {
+                    break;
+                }
+                if (remove(leastRecentlyUsed.getRequest(), leastRecentlyUsed.getEntry())) {
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class EvictionCandidate {
+        private final Request request;
+        private final CacheEntry entry;
+        private final long lastAccess;
+
+        public EvictionCandidate(Request request, CacheEntry entry) {
+            this.request = request;
+            this.entry = entry;
+            this.lastAccess = entry.getLastAccess();
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+
+        public CacheEntry getEntry() {
+            return entry;
+        }
+
+        public long getLastAccess() {
+            return lastAccess;
+        }
+
+    }
+
+    public static class CacheEntry {
+        private final Response response;
+        private final Duration timeToLive;
+        private final long weight;
+        private final String eTag;
+        private final String lastModified;
+        private volatile long expiresAt;
+        private volatile long lastAccess;
+
+        private CacheEntry(Response response, long createdAt, Duration timeToLive, long weight) {
+            this.response = response;
+            this.timeToLive = timeToLive;
+            this.weight = weight;
+            this.eTag = response.getHeaderValue(HttpHeaders.ETAG);
+            this.lastModified = response.getHeaderValue(HttpHeaders.LAST_MODIFIED);
+            this.lastAccess = createdAt;
+            renew(createdAt);
+        }
+
+        public Response getResponse() {
+            return response;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public Optional<String> getETag() {
+            return Optional.ofNullable(eTag).filter(StringUtils::isNotBlank);
+        }
+
+        public Optional<String> getLastModified() {
+            return Optional.ofNullable(lastModified).filter(StringUtils::isNotBlank);
+        }
+
+        public boolean hasValidators() {
+            return getETag().isPresent() || getLastModified().isPresent();
+        }
+
+        private long getLastAccess() {
+            return lastAccess;
+        }
+
+        private void touch(long now) {
+            lastAccess = now;
+        }
+
+        private void renew(long now) {
+            expiresAt = timeToLive.isZero() ? Long.MAX_VALUE : now + timeToLive.toNanos();
+        }
+
+        private void expire(long now) {
+            expiresAt = now;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.hedge;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.synopsys.integration.blackduck.http.client.metrics.LatencyHistogram;
+
+/**
+ * How long to wait for a response before hedging, per templated endpoint:
+ * the given percentile of that endpoint's recent latencies, kept within the
+ * minimum and maximum. Until an endpoint has enough samples the initial delay
+ * is used.
+ *
+ * Latencies are kept in windows of a fixed number of samples - once a window
+ * is full a new one is started, and the full one is used until the new one
+ * has enough samples of its own, so the delay follows the server over time.
+ */
+public class HedgeDelay {
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(50);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(10);
+
+    private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+    private final double percentile;
+    private final int minSamples;
+    private final int windowSize;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+
+    public HedgeDelay() {
+        this(DEFAULT_PERCENTILE, DEFAULT_MIN_SAMPLES, DEFAULT_WINDOW_SIZE, DEFAULT_INITIAL_DELAY, DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY);
+    }
+
+    public HedgeDelay(double percentile, int minSamples, int windowSize, Duration initialDelay, Duration minDelay, Duration maxDelay) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("The hedge percentile must be greater than 0 and no more than 100.");
+        }
+        if (minSamples <= 0 || windowSize < minSamples) {
+            throw new IllegalArgumentException("The minimum samples must be greater than zero and no more than the window size.");
+        }
+        if (minDelay.isNegative() || maxDelay.compareTo(minDelay) < 0 || initialDelay.compareTo(minDelay) < 0 || initialDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("The hedge delays must satisfy 0 <= minimum <= initial <= maximum.");
+        }
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.windowSize = windowSize;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public void record(String template, long latencyNanos) {
+        latencyWindows.computeIfAbsent(template, ignored -> new LatencyWindow()).record(latencyNanos);
+    }
+
+    public Duration getDelay(String template) {
+        LatencyWindow latencyWindow = latencyWindows.get(template);
+        LatencyHistogram histogram = null == latencyWindow ? null : latencyWindow.getHistogramWithSamples();
+        if (null == histogram) {
+            return initialDelay;
+        }
+
+        Duration delay = Duration.of(histogram.getValueAtPercentile(percentile), ChronoUnit.MICROS);
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private class LatencyWindow {
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous;
+
+        public void record(long latencyNanos) {
+            LatencyHistogram histogram = current;
+            histogram.recordNanos(latencyNanos);
+            if (histogram.getCount() >= windowSize) {
+                synchronized (this) {
+                    if (histogram == current) {
+                        previous = histogram;
+                        current = new LatencyHistogram();
+                    }
+                }
+            }
+        }
+
+        public LatencyHistogram getHistogramWithSamples() {
+            LatencyHistogram histogram = current;
+            if (histogram.getCount() >= minSamples) {
+                return histogram;
+            }
+            return previous;
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.hedge;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.http.BlackDuckUrl;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.retry.RetryBudget;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Sends a second copy of a GET that has not been answered within the
+ * endpoint's HedgeDelay, and returns whichever response arrives first. Other
+ * methods are passed straight through.
+ *
+ * Requests run on the given executor, so it needs a thread for the request
+ * and one for the hedge - with a same-thread executor nothing is ever hedged.
+ * The losing copy is cancelled if it has not started yet. One already in
+ * flight is not aborted - the wrapped client never exposes the HTTP request
+ * it sends - so it keeps its thread and its pooled connection until the slow
+ * server answers, and only then is its response closed. Size the executor
+ * and the connection pool with that in mind. Hedges are limited by a budget,
+ * a small fraction of all requests, so a slow server is not sent twice the
+ * load.
+ */
+public class HedgingHttpClient extends DelegatingBlackDuckHttpClient {
+    public static final double DEFAULT_HEDGE_RATIO = 0.05;
+    public static final int DEFAULT_MAX_HEDGE_BALANCE = 5;
+
+    private final Executor executor;
+    private final HedgeDelay hedgeDelay;
+    private final RetryBudget hedgeBudget;
+
+    private final LongAdder hedgedCount = new LongAdder();
+    private final LongAdder hedgeWonCount = new LongAdder();
+
+    public HedgingHttpClient(BlackDuckHttpClient blackDuckHttpClient, Executor executor) {
+        this(blackDuckHttpClient, executor, new HedgeDelay(), new RetryBudget(DEFAULT_HEDGE_RATIO, DEFAULT_MAX_HEDGE_BALANCE));
+    }
+
+    public HedgingHttpClient(BlackDuckHttpClient blackDuckHttpClient, Executor executor, HedgeDelay hedgeDelay, RetryBudget hedgeBudget) {
+        super(blackDuckHttpClient);
+        this.executor = executor;
+        this.hedgeDelay = hedgeDelay;
+        this.hedgeBudget = hedgeBudget;
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        if (HttpMethod.GET != request.getMethod()) {
+            return blackDuckHttpClient.execute(blackDuckRequest);
+        }
+
+        String template = new BlackDuckUrl(request.getUrl()).parseTemplate();
+        Duration delay = hedgeDelay.getDelay(template);
+        hedgeBudget.recordRequest();
+
+        CompletableFuture<Response> firstResponse = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        long startNanos = System.nanoTime();
+        CompletableFuture<Response> primary = submit(blackDuckRequest, firstResponse, outstanding, false);
+        primary.whenComplete((response, failure) -> {
+            // only the original request's latency is a fair sample of the endpoint
+            if (null == failure) {
+                hedgeDelay.record(template, System.nanoTime() - startNanos);
+            }
+        });
+
+        Optional<Response> response = awaitWithin(firstResponse, delay);
+        if (response.isPresent()) {
+            return response.get();
+        }
+
+        if (!firstResponse.isDone() && hedgeBudget.tryRetry()) {
+            outstanding.incrementAndGet();
+            hedgedCount.increment();
+            submit(blackDuckRequest, firstResponse, outstanding, true);
+        }
+        return await(firstResponse);
+    }
+
+    public HedgeDelay getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    public RetryBudget getHedgeBudget() {
+        return hedgeBudget;
+    }
+
+    public long getHedgedCount() {
+        return hedgedCount.sum();
+    }
+
+    /**
+     * How many hedges answered before the request they were hedging.
+     */
+    public long getHedgeWonCount() {
+        return hedgeWonCount.sum();
+    }
+
+    private <T extends BlackDuckResponse, U extends UrlResponse<T>> CompletableFuture<Response> submit(BlackDuckRequest<T, U> blackDuckRequest, CompletableFuture<Response> firstResponse, AtomicInteger outstanding,
+        boolean hedge) {
+        CompletableFuture<Response> attempt = CompletableFuture.supplyAsync(() -> {
+            if (firstResponse.isDone()) {
+                throw new CancellationException("The request was already answered.");
+            }
+            try {
+                return blackDuckHttpClient.execute(blackDuckRequest);
+            } catch (IntegrationException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+
+        attempt.whenComplete((response, failure) -> {
+            if (null != failure) {
+                // a failure only counts once there is nothing left to wait for
+                if (0 == outstanding.decrementAndGet()) {
+                    firstResponse.completeExceptionally(failure);
+                }
+            } else if (firstResponse.complete(response)) {
+                if (hedge) {
+                    hedgeWonCount.increment();
+                }
+            } else {
+                closeQuietly(response);
+            }
+        });
+        return attempt;
+    }
+
+    private Optional<Response> awaitWithin(CompletableFuture<Response> firstResponse, Duration delay) throws IntegrationException {
+        try {
+            return Optional.of(firstResponse.get(delay.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException | ExecutionException e) {
+            throw handleFailure(firstResponse, e);
+        }
+    }
+
+    private Response await(CompletableFuture<Response> firstResponse) throws IntegrationException {
+        try {
+            return firstResponse.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw handleFailure(firstResponse, e);
+        }
+    }
+
+    private IntegrationException handleFailure(CompletableFuture<Response> firstResponse, Exception e) {
+        if (e instanceof InterruptedException) {
+            // any response still to come will be closed
+            firstResponse.cancel(false);
+            Thread.currentThread().interrupt();
+            return new IntegrationException("Interrupted while waiting for a response: " + e.getMessage(), e);
+        }
+
+        Throwable cause = e.getCause();
+        if (cause instanceof IntegrationException) {
+            return (IntegrationException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IntegrationException(cause.getMessage(), cause);
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // the response lost the race and is being thrown away
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.limit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * An additive-increase/multiplicative-decrease limit on the number of
+ * requests in flight. Every successful request grows the limit by roughly
+ * one per window of requests, and a throttled request (429/503) cuts it by
+ * the backoff ratio and pauses new requests for the Retry-After time plus a
+ * random jitter, so a fleet of clients doesn't retry in lockstep.
+ *
+ * Only one cut is made per window - requests that were already in flight
+ * when the limit was cut don't cut it again when they are throttled too.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final int DEFAULT_INITIAL_LIMIT = 8;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 64;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.5;
+    public static final Duration DEFAULT_PAUSE = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_MAX_PAUSE = Duration.ofMinutes(2);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Duration defaultPause;
+    private final Duration maxPause;
+    private final LongSupplier nanoTime;
+    private final DoubleSupplier random;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long generation;
+    private long pausedUntil;
+    private boolean paused;
+    private long throttledCount;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, DEFAULT_BACKOFF_RATIO, DEFAULT_PAUSE, DEFAULT_MAX_PAUSE, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param defaultPause the pause when a throttled response has no usable Retry-After
+     * @param maxPause     no Retry-After will pause new requests for longer than this
+     * @param random       supplies values in [0, 1) for the jitter
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration defaultPause, Duration maxPause, LongSupplier nanoTime, DoubleSupplier random) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The limits must be greater than zero and the minimum no more than the maximum.");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The initial limit must be between the minimum and maximum limits.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between zero and one.");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.defaultPause = defaultPause;
+        this.maxPause = maxPause;
+        this.nanoTime = nanoTime;
+        this.random = random;
+    }
+
+    /**
+     * Blocks until a request may be sent. The returned permit must be
+     * completed exactly once, with the outcome of the request.
+     */
+    public Permit acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long remainingPause = paused ? pausedUntil - nanoTime.getAsLong() : 0;
+                if (remainingPause > 0) {
+                    permitAvailable.awaitNanos(remainingPause);
+                } else if (inFlight >= getLimit()) {
+                    paused = false;
+                    permitAvailable.await();
+                } else {
+                    paused = false;
+                    inFlight++;
+                    return new Permit(generation);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits at most the timeout for a request to be allowed - a permit that
+     * is never completed would otherwise block every later request for good.
+     * The returned permit must be completed exactly once.
+     */
+    public Optional<Permit> tryAcquire(Duration timeout) throws InterruptedException {
+        long remainingWait = timeout.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long remainingPause = paused ? pausedUntil - nanoTime.getAsLong() : 0;
+                if (remainingPause <= 0) {
+                    paused = false;
+                    if (inFlight < getLimit()) {
+                        inFlight++;
+                        return Optional.of(new Permit(generation));
+                    }
+                }
+                if (remainingWait <= 0) {
+                    return Optional.empty();
+                }
+                long wait = remainingPause > 0 ? Math.min(remainingPause, remainingWait) : remainingWait;
+                remainingWait -= wait - permitAvailable.awaitNanos(wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getThrottledCount() {
+        lock.lock();
+        try {
+            return throttledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onThrottled(long permitGeneration, Duration retryAfter) {
+        lock.lock();
+        try {
+            throttledCount++;
+            if (permitGeneration == generation) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                generation++;
+            }
+
+            Duration pause = null == retryAfter || retryAfter.isNegative() ? defaultPause : retryAfter;
+            if (pause.compareTo(maxPause) > 0) {
+                pause = maxPause;
+            }
+            // up to half the pause again, so clients throttled together don't all come back together
+            long jitteredPause = pause.toNanos() + (long) (pause.toNanos() * 0.5 * random.getAsDouble());
+            long resumeAt = nanoTime.getAsLong() + jitteredPause;
+            if (!paused || resumeAt - pausedUntil > 0) {
+                pausedUntil = resumeAt;
+                paused = true;
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnore() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        inFlight--;
+        permitAvailable.signalAll();
+    }
+
+    public class Permit {
+        private final long permitGeneration;
+        private boolean completed;
+
+        private Permit(long permitGeneration) {
+            this.permitGeneration = permitGeneration;
+        }
+
+        /**
+         * The request succeeded (or failed for a reason unrelated to load).
+         */
+        public void success() {
+            if (complete()) {
+                onSuccess();
+            }
+        }
+
+        /**
+         * The server asked us to slow down.
+         * @param retryAfter how long the server asked us to wait, or null if it didn't say
+         */
+        public void throttled(Duration retryAfter) {
+            if (complete()) {
+                onThrottled(permitGeneration, retryAfter);
+            }
+        }
+
+        /**
+         * The request didn't tell us anything about the server's load (it
+         * was interrupted or never reached the server, for example).
+         */
+        public void ignore() {
+            if (complete()) {
+                onIgnore();
+            }
+        }
+
+        private synchronized boolean complete() {
+            boolean firstCompletion = !completed;
+            completed = true;
+            return firstCompletion;
+        }
+
+    }
+
+}
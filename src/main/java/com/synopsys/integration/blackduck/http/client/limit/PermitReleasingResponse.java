@@ -0,0 +1,138 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.limit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Holds a request's place in the AdaptiveConcurrencyLimiter until the
+ * response is finished with - when it is closed, or when its content has been
+ * read as a String - since the connection is busy until then.
+ */
+public class PermitReleasingResponse implements Response {
+    private final Response response;
+    private final AdaptiveConcurrencyLimiter.Permit permit;
+
+    public PermitReleasingResponse(Response response, AdaptiveConcurrencyLimiter.Permit permit) {
+        this.response = response;
+        this.permit = permit;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        return response.getRequest();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return response.isStatusCodeSuccess();
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return response.isStatusCodeError();
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return response.getStatusMessage();
+    }
+
+    @Override
+    public InputStream getContent() throws IntegrationException {
+        return response.getContent();
+    }
+
+    @Override
+    public String getContentString() throws IntegrationException {
+        try {
+            return response.getContentString();
+        } finally {
+            permit.success();
+        }
+    }
+
+    @Override
+    public String getContentString(Charset encoding) throws IntegrationException {
+        try {
+            return response.getContentString(encoding);
+        } finally {
+            permit.success();
+        }
+    }
+
+    @Override
+    public Long getContentLength() {
+        return response.getContentLength();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return response.getContentEncoding();
+    }
+
+    @Override
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return response.getHeaderValue(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        return response.getActualResponse();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            response.close();
+        } finally {
+            // the permit only counts once, however often this is called
+            permit.success();
+        }
+    }
+
+    @Override
+    public long getLastModified() throws IntegrationException {
+        return response.getLastModified();
+    }
+
+    @Override
+    public void throwExceptionForError() throws IntegrationRestException {
+        response.throwExceptionForError();
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.limit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Keeps the number of requests in flight within what Black Duck can sustain,
+ * as learned by an AdaptiveConcurrencyLimiter. A successful request holds
+ * its place until its response is closed or read, not just until the headers
+ * arrive - any other response gives its place up as soon as its status is
+ * known. A request that cannot get a place within the acquire timeout fails.
+ *
+ * A throttled (429 or 503) response to an idempotent request is closed and
+ * the request sent again once the limiter lets it, up to the maximum number
+ * of attempts - the last throttled response is returned as is. Throttled
+ * responses to other requests (a POST, for example) are returned right away,
+ * since the server may have acted on them anyway.
+ */
+public class RateLimitingHttpClient extends DelegatingBlackDuckHttpClient {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int SC_TOO_MANY_REQUESTS = 429;
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofMinutes(5);
+    public static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int maxAttempts;
+    private final Duration acquireTimeout;
+    private final LongSupplier currentTimeMillis;
+
+    public RateLimitingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        this(blackDuckHttpClient, new AdaptiveConcurrencyLimiter(), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public RateLimitingHttpClient(BlackDuckHttpClient blackDuckHttpClient, AdaptiveConcurrencyLimiter limiter, int maxAttempts) {
+        this(blackDuckHttpClient, limiter, maxAttempts, System::currentTimeMillis);
+    }
+
+    public RateLimitingHttpClient(BlackDuckHttpClient blackDuckHttpClient, AdaptiveConcurrencyLimiter limiter, int maxAttempts, LongSupplier currentTimeMillis) {
+        this(blackDuckHttpClient, limiter, maxAttempts, DEFAULT_ACQUIRE_TIMEOUT, currentTimeMillis);
+    }
+
+    public RateLimitingHttpClient(BlackDuckHttpClient blackDuckHttpClient, AdaptiveConcurrencyLimiter limiter, int maxAttempts, Duration acquireTimeout, LongSupplier currentTimeMillis) {
+        super(blackDuckHttpClient);
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The maximum number of attempts must be greater than zero.");
+        }
+        if (acquireTimeout.isNegative()) {
+            throw new IllegalArgumentException("The acquire timeout must not be negative.");
+        }
+        this.limiter = limiter;
+        this.maxAttempts = maxAttempts;
+        this.acquireTimeout = acquireTimeout;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        for (int attempt = 1; ; attempt++) {
+            AdaptiveConcurrencyLimiter.Permit permit = acquirePermit();
+            Response response;
+            try {
+                response = blackDuckHttpClient.execute(blackDuckRequest);
+            } catch (IntegrationException e) {
+                if (isThrottled(e)) {
+                    permit.throttled(null);
+                } else {
+                    permit.ignore();
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                permit.ignore();
+                throw e;
+            }
+
+            if (!isThrottled(response.getStatusCode())) {
+                if (!response.isStatusCodeSuccess()) {
+                    // error responses are rarely read to the end, or closed, before they are thrown
+                    permit.success();
+                    return response;
+                }
+                return new PermitReleasingResponse(response, permit);
+            }
+
+            permit.throttled(parseRetryAfter(response.getHeaderValue(HttpHeaders.RETRY_AFTER)).orElse(null));
+            if (attempt >= maxAttempts || !IDEMPOTENT_METHODS.contains(blackDuckRequest.getRequest().getMethod())) {
+                return response;
+            }
+            closeQuietly(response);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Retry-After is either a number of seconds or an HTTP date.
+     */
+    Optional<Duration> parseRetryAfter(String retryAfter) {
+        if (StringUtils.isBlank(retryAfter)) {
+            return Optional.empty();
+        }
+
+        String trimmed = retryAfter.trim();
+        if (NumberUtils.isDigits(trimmed)) {
+            return Optional.of(Duration.ofSeconds(NumberUtils.toLong(trimmed)));
+        }
+
+        Date retryAt = DateUtils.parseDate(trimmed);
+        if (null == retryAt) {
+            return Optional.empty();
+        }
+        long millis = retryAt.getTime() - currentTimeMillis.getAsLong();
+        return Optional.of(Duration.ofMillis(Math.max(0, millis)));
+    }
+
+    private AdaptiveConcurrencyLimiter.Permit acquirePermit() throws IntegrationException {
+        try {
+            return limiter.tryAcquire(acquireTimeout)
+                       .orElseThrow(() -> new IntegrationException(String.format("Timed out after %s waiting to send a request to Black Duck - %d requests are in flight, so responses may not have been closed.",
+                           acquireTimeout, limiter.getInFlight())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while waiting to send a request to Black Duck.", e);
+        }
+    }
+
+    private boolean isThrottled(IntegrationException e) {
+        if (e instanceof BlackDuckApiException) {
+            return isThrottled(((BlackDuckApiException) e).getOriginalIntegrationRestException().getHttpStatusCode());
+        } else if (e instanceof IntegrationRestException) {
+            return isThrottled(((IntegrationRestException) e).getHttpStatusCode());
+        }
+        return false;
+    }
+
+    private boolean isThrottled(int statusCode) {
+        return SC_TOO_MANY_REQUESTS == statusCode || HttpStatus.SC_SERVICE_UNAVAILABLE == statusCode;
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // the response is being thrown away
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+/**
+ * Receives a RequestMetric for every request a DefaultBlackDuckHttpClient
+ * makes. It is called on the requesting thread, so it should only count -
+ * exporting belongs on a separate schedule.
+ */
+@FunctionalInterface
+public interface BlackDuckHttpMetrics {
+    BlackDuckHttpMetrics NO_OP = requestMetric -> {
+    };
+
+    void record(RequestMetric requestMetric);
+
+}
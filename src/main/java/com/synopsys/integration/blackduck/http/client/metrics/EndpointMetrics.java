@@ -0,0 +1,94 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The running totals for one method and templated path.
+ */
+public class EndpointMetrics {
+    private final String method;
+    private final String template;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final Map<Integer, LongAdder> countsByStatusCode = new ConcurrentHashMap<>();
+    private final LatencyHistogram timeToHeaders = new LatencyHistogram();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    public EndpointMetrics(String method, String template) {
+        this.method = method;
+        this.template = template;
+    }
+
+    public void record(RequestMetric requestMetric) {
+        requestCount.increment();
+        if (requestMetric.isError()) {
+            errorCount.increment();
+        }
+        bytesSent.add(requestMetric.getBytesSent());
+        bytesReceived.add(requestMetric.getBytesReceived());
+        countsByStatusCode.computeIfAbsent(requestMetric.getStatusCode(), ignored -> new LongAdder()).increment();
+        timeToHeaders.recordNanos(requestMetric.getTimeToHeadersNanos());
+        totalLatency.recordNanos(requestMetric.getTotalNanos());
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Requests that never got a response are counted under RequestMetric.NO_STATUS.
+     */
+    public Map<Integer, Long> getCountsByStatusCode() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        countsByStatusCode.forEach((statusCode, count) -> counts.put(statusCode, count.sum()));
+        return counts;
+    }
+
+    /**
+     * In microseconds.
+     */
+    public LatencyHistogram getTimeToHeaders() {
+        return timeToHeaders;
+    }
+
+    /**
+     * In microseconds.
+     */
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps EndpointMetrics for each method and templated path. Paths that do not
+ * collapse into a template (a name in the path, for example) could grow
+ * without bound, so past the maximum number of endpoints everything new is
+ * counted under OTHER_TEMPLATE instead.
+ */
+public class EndpointMetricsRegistry implements BlackDuckHttpMetrics {
+    public static final int DEFAULT_MAX_ENDPOINTS = 500;
+    public static final String OTHER_TEMPLATE = "{other}";
+
+    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private final int maxEndpoints;
+
+    public EndpointMetricsRegistry() {
+        this(DEFAULT_MAX_ENDPOINTS);
+    }
+
+    public EndpointMetricsRegistry(int maxEndpoints) {
+        if (maxEndpoints <= 0) {
+            throw new IllegalArgumentException("The maximum number of endpoints must be greater than zero.");
+        }
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    @Override
+    public void record(RequestMetric requestMetric) {
+        getOrCreate(requestMetric.getMethod(), requestMetric.getTemplate()).record(requestMetric);
+    }
+
+    /**
+     * A live view of every endpoint seen so far, ordered by template and method.
+     */
+    public List<EndpointMetrics> getEndpointMetrics() {
+        List<EndpointMetrics> all = new ArrayList<>(endpointMetrics.values());
+        all.sort(Comparator.comparing(EndpointMetrics::getTemplate).thenComparing(EndpointMetrics::getMethod));
+        return all;
+    }
+
+    public void clear() {
+        endpointMetrics.clear();
+    }
+
+    private EndpointMetrics getOrCreate(String method, String template) {
+        String key = createKey(method, template);
+        EndpointMetrics existing = endpointMetrics.get(key);
+        if (null != existing) {
+            return existing;
+        }
+        if (endpointMetrics.size() >= maxEndpoints) {
+            return endpointMetrics.computeIfAbsent(createKey(method, OTHER_TEMPLATE), ignored -> new EndpointMetrics(method, OTHER_TEMPLATE));
+        }
+        return endpointMetrics.computeIfAbsent(key, ignored -> new EndpointMetrics(method, template));
+    }
+
+    private String createKey(String method, String template) {
+        return method + " " + template;
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Records the RequestMetric for a response once it is finished with - when it
+ * is closed, or when its content has been read as a String. A response that
+ * is never closed or read is never recorded.
+ */
+public class MeteredResponse implements Response {
+    private final Response response;
+    private final BlackDuckHttpMetrics httpMetrics;
+    private final TransferCounter transferCounter;
+    private final String template;
+    private final String method;
+    private final long startNanos;
+    private final long timeToHeadersNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicBoolean recorded = new AtomicBoolean(false);
+
+    public MeteredResponse(Response response, BlackDuckHttpMetrics httpMetrics, TransferCounter transferCounter, String template, String method, long startNanos, LongSupplier nanoTime) {
+        this.response = response;
+        this.httpMetrics = httpMetrics;
+        this.transferCounter = transferCounter;
+        this.template = template;
+        this.method = method;
+        this.startNanos = startNanos;
+        this.timeToHeadersNanos = nanoTime.getAsLong() - startNanos;
+        this.nanoTime = nanoTime;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    @Override
+    public HttpUriRequest getRequest() {
+        return response.getRequest();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public boolean isStatusCodeSuccess() {
+        return response.isStatusCodeSuccess();
+    }
+
+    @Override
+    public boolean isStatusCodeError() {
+        return response.isStatusCodeError();
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return response.getStatusMessage();
+    }
+
+    @Override
+    public InputStream getContent() throws IntegrationException {
+        return response.getContent();
+    }
+
+    @Override
+    public String getContentString() throws IntegrationException {
+        String content = response.getContentString();
+        record();
+        return content;
+    }
+
+    @Override
+    public String getContentString(Charset encoding) throws IntegrationException {
+        String content = response.getContentString(encoding);
+        record();
+        return content;
+    }
+
+    @Override
+    public Long getContentLength() {
+        return response.getContentLength();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return response.getContentEncoding();
+    }
+
+    @Override
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public String getHeaderValue(String name) {
+        return response.getHeaderValue(name);
+    }
+
+    @Override
+    public CloseableHttpResponse getActualResponse() {
+        return response.getActualResponse();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            response.close();
+        } finally {
+            record();
+        }
+    }
+
+    @Override
+    public long getLastModified() throws IntegrationException {
+        return response.getLastModified();
+    }
+
+    @Override
+    public void throwExceptionForError() throws IntegrationRestException {
+        response.throwExceptionForError();
+    }
+
+    private void record() {
+        if (recorded.compareAndSet(false, true)) {
+            long totalNanos = nanoTime.getAsLong() - startNanos;
+            httpMetrics.record(new RequestMetric(template, method, response.getStatusCode(), transferCounter.getBytesSent(), transferCounter.getBytesReceived(), timeToHeadersNanos, totalNanos));
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import com.synopsys.integration.util.Stringable;
+
+public class RequestMetric extends Stringable {
+    // no response was received at all
+    public static final int NO_STATUS = 0;
+
+    private final String template;
+    private final String method;
+    private final int statusCode;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final long timeToHeadersNanos;
+    private final long totalNanos;
+
+    /**
+     * @param template           the path with its ids collapsed, from BlackDuckUrl.parseTemplate()
+     * @param bytesSent          the request body as written, after any compression
+     * @param bytesReceived      the response body as read, before any decompression
+     * @param timeToHeadersNanos until the status and headers were received - not the first byte of the body
+     * @param totalNanos         until the response was read or closed
+     */
+    public RequestMetric(String template, String method, int statusCode, long bytesSent, long bytesReceived, long timeToHeadersNanos, long totalNanos) {
+        this.template = template;
+        this.method = method;
+        this.statusCode = statusCode;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.timeToHeadersNanos = timeToHeadersNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    public boolean isError() {
+        return NO_STATUS == statusCode || statusCode >= 400;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getTimeToHeadersNanos() {
+        return timeToHeadersNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Counts the body bytes sent and received for one request, as they cross the
+ * wire - after request compression and before response decompression.
+ *
+ * The interceptors find the counter for the request being executed on the
+ * current thread, so they are no cost at all when nothing is being counted.
+ * The response body may be read later, on any thread, and is still counted.
+ */
+public class TransferCounter {
+    private static final ThreadLocal<TransferCounter> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    /**
+     * Counts the requests executed on this thread until stop() is called.
+     */
+    public static TransferCounter start() {
+        TransferCounter transferCounter = new TransferCounter();
+        CURRENT.set(transferCounter);
+        return transferCounter;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stops counting on this thread until resume is called with the returned
+     * counter, so an exchange made on behalf of the counted request - such as
+     * authenticating it - isn't counted against it.
+     *
+     * @return the counter that was counting, or null if none was
+     */
+    public static TransferCounter pause() {
+        TransferCounter transferCounter = CURRENT.get();
+        CURRENT.remove();
+        return transferCounter;
+    }
+
+    public static void resume(TransferCounter transferCounter) {
+        if (null != transferCounter) {
+            CURRENT.set(transferCounter);
+        }
+    }
+
+    /**
+     * Must run after any interceptor that replaces the request entity.
+     */
+    public static HttpRequestInterceptor createRequestInterceptor() {
+        return TransferCounter::countRequest;
+    }
+
+    /**
+     * Must run before the response is decompressed.
+     */
+    public static HttpResponseInterceptor createResponseInterceptor() {
+        return TransferCounter::countResponse;
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    private static void countRequest(HttpRequest request, HttpContext context) {
+        TransferCounter transferCounter = CURRENT.get();
+        if (null == transferCounter || !(request instanceof HttpEntityEnclosingRequest)) {
+            return;
+        }
+        HttpEntityEnclosingRequest entityEnclosingRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = entityEnclosingRequest.getEntity();
+        if (null != entity) {
+            entityEnclosingRequest.setEntity(new CountingEntity(entity, transferCounter.bytesSent));
+        }
+    }
+
+    private static void countResponse(HttpResponse response, HttpContext context) {
+        TransferCounter transferCounter = CURRENT.get();
+        HttpEntity entity = response.getEntity();
+        if (null != transferCounter && null != entity) {
+            response.setEntity(new CountingEntity(entity, transferCounter.bytesReceived));
+        }
+    }
+
+    private static class CountingEntity extends HttpEntityWrapper {
+        private final AtomicLong byteCount;
+
+        public CountingEntity(HttpEntity wrappedEntity, AtomicLong byteCount) {
+            super(wrappedEntity);
+            this.byteCount = byteCount;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new ProxyInputStream(super.getContent()) {
+                @Override
+                protected void afterRead(int n) {
+                    if (n > 0) {
+                        byteCount.addAndGet(n);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            super.writeTo(new ProxyOutputStream(outputStream) {
+                @Override
+                protected void afterWrite(int n) {
+                    byteCount.addAndGet(n);
+                }
+            });
+        }
+
+    }
+
+}
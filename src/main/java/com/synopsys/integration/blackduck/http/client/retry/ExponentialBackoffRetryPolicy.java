@@ -0,0 +1,116 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+import javax.net.ssl.SSLException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import com.synopsys.integration.blackduck.exception.BlackDuckApiException;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Retries GET, PUT and DELETE requests that failed with a gateway or
+ * availability status, or with an I/O problem such as a reset connection.
+ * The backoff doubles with each failed attempt up to a maximum, and the
+ * actual wait is a random point in the upper half of it.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(30);
+    public static final Set<HttpMethod> IDEMPOTENT_METHODS = Collections.unmodifiableSet(EnumSet.of(HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE));
+    public static final Set<Integer> RETRYABLE_STATUS_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(408, 502, 503, 504)));
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final DoubleSupplier random;
+
+    public ExponentialBackoffRetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    public ExponentialBackoffRetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this(maxAttempts, initialBackoff, maxBackoff, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param random supplies values in [0, 1) for the jitter
+     */
+    public ExponentialBackoffRetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, DoubleSupplier random) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The maximum number of attempts must be greater than zero.");
+        }
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("The initial backoff must not be negative or greater than the maximum backoff.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.random = random;
+    }
+
+    @Override
+    public boolean isRetryable(Request request) {
+        return IDEMPOTENT_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    public boolean isRetryable(int statusCode) {
+        return RETRYABLE_STATUS_CODES.contains(statusCode);
+    }
+
+    @Override
+    public boolean isRetryable(IntegrationException e) {
+        if (e instanceof BlackDuckApiException) {
+            return isRetryable(((BlackDuckApiException) e).getOriginalIntegrationRestException().getHttpStatusCode());
+        } else if (e instanceof IntegrationRestException) {
+            return isRetryable(((IntegrationRestException) e).getHttpStatusCode());
+        }
+
+        // a missing host or a certificate problem won't fix itself
+        for (Throwable cause : ExceptionUtils.getThrowableList(e)) {
+            if (cause instanceof UnknownHostException || cause instanceof SSLException) {
+                return false;
+            }
+        }
+        return ExceptionUtils.indexOfType(e, IOException.class) >= 0;
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public Duration getBackoff(int failedAttempts) {
+        int doublings = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        long halfBackoff = backoff.toMillis() / 2;
+        return Duration.ofMillis(halfBackoff + (long) (halfBackoff * random.getAsDouble()));
+    }
+
+}
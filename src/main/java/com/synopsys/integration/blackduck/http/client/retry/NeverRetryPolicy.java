@@ -0,0 +1,43 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import java.time.Duration;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Request;
+
+class NeverRetryPolicy implements RetryPolicy {
+    static final NeverRetryPolicy INSTANCE = new NeverRetryPolicy();
+
+    @Override
+    public boolean isRetryable(Request request) {
+        return false;
+    }
+
+    @Override
+    public boolean isRetryable(int statusCode) {
+        return false;
+    }
+
+    @Override
+    public boolean isRetryable(IntegrationException e) {
+        return false;
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return 1;
+    }
+
+    @Override
+    public Duration getBackoff(int failedAttempts) {
+        return Duration.ZERO;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import java.time.Duration;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Applies a RetryPolicy within a RetryBudget. A Retrier is meant to be
+ * shared by everything retrying requests to the same Black Duck server, so
+ * they all draw on the one budget.
+ */
+public class Retrier {
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final Sleeper sleeper;
+
+    public static Retrier never() {
+        return new Retrier(RetryPolicy.never(), new RetryBudget(0, 0));
+    }
+
+    public Retrier(RetryPolicy retryPolicy, RetryBudget retryBudget) {
+        this(retryPolicy, retryBudget, duration -> Thread.sleep(duration.toMillis()));
+    }
+
+    public Retrier(RetryPolicy retryPolicy, RetryBudget retryBudget, Sleeper sleeper) {
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = retryBudget;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Makes the call, making it again for as long as it fails in a way the
+     * policy and budget allow to be retried. The last failure is thrown.
+     */
+    public <R> R execute(Request request, ThrowingSupplier<R, IntegrationException> call) throws IntegrationException {
+        retryBudget.recordRequest();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (IntegrationException e) {
+                if (!retryPolicy.isRetryable(e) || !tryRetry(request, attempt)) {
+                    throw e;
+                }
+            }
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * Records the start of a request when the caller makes the attempts itself.
+     */
+    public void recordRequest() {
+        retryBudget.recordRequest();
+    }
+
+    /**
+     * Decides whether to make another attempt at a request that failed,
+     * drawing the retry from the budget if so.
+     */
+    public boolean tryRetry(Request request, int failedAttempts) {
+        return failedAttempts < retryPolicy.getMaxAttempts() && retryPolicy.isRetryable(request) && retryBudget.tryRetry();
+    }
+
+    public void backoff(int failedAttempts) throws IntegrationException {
+        Duration backoff = retryPolicy.getBackoff(failedAttempts);
+        try {
+            sleeper.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while waiting to retry a request to Black Duck.", e);
+        }
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(Duration duration) throws InterruptedException;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+/**
+ * Limits retries to a fraction of the requests made, so a struggling
+ * server isn't hit with several times the normal load. Every request
+ * deposits a fraction of a retry, every retry withdraws a whole one, and the
+ * balance never exceeds the maximum - which is also where it starts.
+ */
+public class RetryBudget {
+    public static final double DEFAULT_RETRY_RATIO = 0.1;
+    public static final int DEFAULT_MAX_BALANCE = 10;
+
+    private final double retryRatio;
+    private final double maxBalance;
+
+    private double balance;
+    private long retryCount;
+    private long deniedCount;
+
+    public static RetryBudget unlimited() {
+        return new RetryBudget(1, Integer.MAX_VALUE);
+    }
+
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MAX_BALANCE);
+    }
+
+    public RetryBudget(double retryRatio, int maxBalance) {
+        if (retryRatio < 0 || maxBalance < 0) {
+            throw new IllegalArgumentException("The retry ratio and maximum balance must not be negative.");
+        }
+        this.retryRatio = retryRatio;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+    }
+
+    public synchronized void recordRequest() {
+        balance = Math.min(maxBalance, balance + retryRatio);
+    }
+
+    public synchronized boolean tryRetry() {
+        if (balance < 1) {
+            deniedCount++;
+            return false;
+        }
+        balance--;
+        retryCount++;
+        return true;
+    }
+
+    public synchronized double getBalance() {
+        return balance;
+    }
+
+    public synchronized long getRetryCount() {
+        return retryCount;
+    }
+
+    public synchronized long getDeniedCount() {
+        return deniedCount;
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import java.time.Duration;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Request;
+
+/**
+ * Decides which failures are worth another attempt and how long to wait
+ * before making it.
+ */
+public interface RetryPolicy {
+    static RetryPolicy never() {
+        return NeverRetryPolicy.INSTANCE;
+    }
+
+    /**
+     * Only requests that can safely be sent twice should be retried.
+     */
+    boolean isRetryable(Request request);
+
+    boolean isRetryable(int statusCode);
+
+    boolean isRetryable(IntegrationException e);
+
+    /**
+     * The total number of attempts, including the first.
+     */
+    int getMaxAttempts();
+
+    /**
+     * @param failedAttempts the number of attempts that have failed so far, starting at one
+     */
+    Duration getBackoff(int failedAttempts);
+
+}
@@ -0,0 +1,77 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import java.io.IOException;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Sends idempotent requests again when they fail transiently, as decided by
+ * the Retrier's policy and budget. A retryable error response is closed
+ * before the next attempt - once no more attempts are allowed, the last
+ * response is returned (or the last exception thrown) just as without
+ * retries.
+ */
+public class RetryingHttpClient extends DelegatingBlackDuckHttpClient {
+    private final Retrier retrier;
+
+    public RetryingHttpClient(BlackDuckHttpClient blackDuckHttpClient) {
+        this(blackDuckHttpClient, new Retrier(new ExponentialBackoffRetryPolicy(), new RetryBudget()));
+    }
+
+    public RetryingHttpClient(BlackDuckHttpClient blackDuckHttpClient, Retrier retrier) {
+        super(blackDuckHttpClient);
+        this.retrier = retrier;
+    }
+
+    @Override
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> Response execute(BlackDuckRequest<T, U> blackDuckRequest) throws IntegrationException {
+        Request request = blackDuckRequest.getRequest();
+        RetryPolicy retryPolicy = retrier.getRetryPolicy();
+        retrier.recordRequest();
+        for (int attempt = 1; ; attempt++) {
+            Response response;
+            try {
+                response = blackDuckHttpClient.execute(blackDuckRequest);
+            } catch (IntegrationException e) {
+                if (!retryPolicy.isRetryable(e) || !retrier.tryRetry(request, attempt)) {
+                    throw e;
+                }
+                retrier.backoff(attempt);
+                continue;
+            }
+
+            if (!retryPolicy.isRetryable(response.getStatusCode()) || !retrier.tryRetry(request, attempt)) {
+                return response;
+            }
+            closeQuietly(response);
+            retrier.backoff(attempt);
+        }
+    }
+
+    public Retrier getRetrier() {
+        return retrier;
+    }
+
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // the response is being thrown away
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Learns a limit per templated endpoint, kept within the minimum and
+ * maximum: a full page that came back in under half the target duration
+ * (and under half the maximum size, when its length is known) doubles the
+ * limit, and one that took longer than the target or was larger than the
+ * maximum halves it. Pages with fewer items than the limit say nothing about
+ * a larger one, so they are ignored.
+ *
+ * Until an endpoint has had a full page the requested limit is used. What
+ * was learned lasts as long as the policy, so share one instance for the
+ * life of the client. At most maxEndpoints endpoints are learned - any
+ * others keep the requested limit.
+ */
+public class AdaptivePageSizePolicy implements PageSizePolicy {
+    public static final int DEFAULT_MIN_LIMIT = 25;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+    public static final Duration DEFAULT_TARGET_PAGE_DURATION = Duration.ofSeconds(2);
+    public static final long DEFAULT_MAX_PAGE_BYTES = 4L * 1024 * 1024;
+    public static final int DEFAULT_MAX_ENDPOINTS = 500;
+
+    private final Map<String, AtomicInteger> limits = new ConcurrentHashMap<>();
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetPageNanos;
+    private final long maxPageBytes;
+    private final int maxEndpoints;
+
+    public AdaptivePageSizePolicy() {
+        this(DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_TARGET_PAGE_DURATION, DEFAULT_MAX_PAGE_BYTES, DEFAULT_MAX_ENDPOINTS);
+    }
+
+    public AdaptivePageSizePolicy(int minLimit, int maxLimit, Duration targetPageDuration, long maxPageBytes, int maxEndpoints) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The page limits must satisfy 0 < minimum <= maximum.");
+        }
+        if (targetPageDuration.isZero() || targetPageDuration.isNegative() || maxPageBytes <= 0) {
+            throw new IllegalArgumentException("The target page duration and maximum page size must be positive.");
+        }
+        if (maxEndpoints <= 0) {
+            throw new IllegalArgumentException("The maximum number of endpoints must be greater than zero.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetPageNanos = targetPageDuration.toNanos();
+        this.maxPageBytes = maxPageBytes;
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    @Override
+    public int getLimit(String template, int requestedLimit) {
+        AtomicInteger learnedLimit = limits.get(template);
+        if (null != learnedLimit) {
+            return learnedLimit.get();
+        }
+        return Math.max(minLimit, Math.min(maxLimit, requestedLimit));
+    }
+
+    @Override
+    public void record(String template, int limit, int itemCount, long contentLength, long nanos) {
+        if (itemCount < limit) {
+            return;
+        }
+
+        int nextLimit;
+        boolean sizeKnown = contentLength >= 0;
+        if (nanos > targetPageNanos || (sizeKnown && contentLength > maxPageBytes)) {
+            nextLimit = Math.max(minLimit, limit / 2);
+        } else if (nanos < targetPageNanos / 2 && (!sizeKnown || contentLength < maxPageBytes / 2)) {
+            nextLimit = Math.min(maxLimit, limit * 2);
+        } else {
+            return;
+        }
+
+        AtomicInteger learnedLimit = limits.get(template);
+        if (null == learnedLimit) {
+            if (limits.size() >= maxEndpoints) {
+                return;
+            }
+            learnedLimit = limits.computeIfAbsent(template, ignored -> new AtomicInteger(limit));
+        }
+        // a page fetched with an older limit must not undo what a newer one taught
+        learnedLimit.compareAndSet(limit, nextLimit);
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+}
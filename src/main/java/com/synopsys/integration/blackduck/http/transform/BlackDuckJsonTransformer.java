@@ -8,7 +8,11 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -20,10 +24,11 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.flipkart.zjsonpatch.JsonDiff;
 import com.flipkart.zjsonpatch.JsonPatch;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
 import com.synopsys.integration.blackduck.api.manual.response.BlackDuckResponseResponse;
 import com.synopsys.integration.blackduck.api.manual.response.BlackDuckStringResponse;
@@ -35,16 +40,28 @@ import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckJsonTransformer {
+    private static final String TOTAL_COUNT = "totalCount";
+    private static final String ITEMS = "items";
+
     private final Gson gson;
     private final ObjectMapper objectMapper;
     private final BlackDuckResponseResolver responseResolver;
     private final IntLogger logger;
+    private final boolean retainJson;
 
     public BlackDuckJsonTransformer(Gson gson, ObjectMapper objectMapper, BlackDuckResponseResolver responseResolver, IntLogger logger) {
+        this(gson, objectMapper, responseResolver, logger, true);
+    }
+
+    /**
+     * @param retainJson if false, responses keep only their typed fields - getJson() and getJsonElement() return null until restoreJson is called
+     */
+    public BlackDuckJsonTransformer(Gson gson, ObjectMapper objectMapper, BlackDuckResponseResolver responseResolver, IntLogger logger, boolean retainJson) {
         this.gson = gson;
         this.objectMapper = objectMapper;
         this.responseResolver = responseResolver;
         this.logger = logger;
+        this.retainJson = retainJson;
     }
 
     public <T extends BlackDuckResponse> T getResponse(Response response, Class<T> clazz) throws IntegrationException {
@@ -68,44 +85,70 @@ public class BlackDuckJsonTransformer {
     }
 
     public <T extends BlackDuckResponse> T getResponseAs(JsonElement jsonElement, Class<T> clazz) throws BlackDuckIntegrationException {
-        String json = gson.toJson(jsonElement);
         try {
             T blackDuckResponse = responseResolver.resolve(jsonElement, clazz);
 
             blackDuckResponse.setGson(gson);
-            blackDuckResponse.setJsonElement(jsonElement);
-            blackDuckResponse.setJson(json);
-            setPatch(blackDuckResponse);
+            if (retainJson) {
+                restoreJson(blackDuckResponse, jsonElement);
+            }
 
             return blackDuckResponse;
         } catch (JsonSyntaxException e) {
-            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), json));
+            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), gson.toJson(jsonElement)));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
-    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz) throws IntegrationException {
+    /**
+     * Gives a response read without its json (see retainJson) the json it was
+     * read from, or the json Black Duck has for it now.
+     */
+    public void restoreJson(BlackDuckResponse blackDuckResponse, String json) throws BlackDuckIntegrationException {
         try {
-            JsonObject jsonObject = gson.fromJson(json, JsonObject.class);
-            int totalCount = jsonObject.get("totalCount").getAsInt();
-            JsonArray items = jsonObject.get("items").getAsJsonArray();
-            List<T> itemList = new ArrayList<>();
-            for (JsonElement jsonElement : items) {
-                itemList.add(getResponseAs(jsonElement, clazz));
-            }
-
-            return new BlackDuckPageResponse<>(totalCount, itemList);
+            restoreJson(blackDuckResponse, gson.fromJson(json, JsonElement.class));
         } catch (JsonSyntaxException e) {
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
+        }
+    }
+
+    public boolean isRetainingJson() {
+        return retainJson;
+    }
+
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(String json, Class<T> clazz) throws IntegrationException {
+        try {
+            return readResponses(new JsonReader(new StringReader(json)), clazz);
+        } catch (JsonParseException | IOException | IllegalStateException e) {
             logger.error(String.format("Could not parse the provided json responses with Gson:%s%s", System.lineSeparator(), json));
             throw new BlackDuckIntegrationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Reads a page straight from the content, one item at a time, so neither
+     * the whole content nor a tree of every item is ever held in memory - only
+     * the items themselves. The stream is closed.
+     */
+    public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getResponses(InputStream content, Class<T> clazz) throws IntegrationException {
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+            return readResponses(jsonReader, clazz);
+        } catch (JsonParseException | IOException | IllegalStateException e) {
+            logger.error("Could not parse the provided json responses with Gson: " + e.getMessage());
+            throw new BlackDuckIntegrationException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The patch restoring whatever Gson could not map is only needed here, so
+     * it is computed here - on the first use - rather than for every response
+     * that is read.
+     */
     public String producePatchedJson(BlackDuckResponse blackDuckResponse) {
         String lossyJson = gson.toJson(blackDuckResponse);
         try {
             JsonNode target = objectMapper.readTree(lossyJson);
-            JsonNode patch = blackDuckResponse.getPatch();
+            JsonNode patch = getOrCreatePatch(blackDuckResponse);
 
             List<JsonNode> listOfPatches = transformPatchToListOfPatches(patch);
             for (JsonNode singleChangePatch : listOfPatches) {
@@ -125,6 +168,35 @@ public class BlackDuckJsonTransformer {
         }
     }
 
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> readResponses(JsonReader jsonReader, Class<T> clazz) throws IOException, IntegrationException {
+        Integer totalCount = null;
+        List<T> itemList = new ArrayList<>();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (TOTAL_COUNT.equals(name)) {
+                totalCount = jsonReader.nextInt();
+            } else if (ITEMS.equals(name) && JsonToken.BEGIN_ARRAY == jsonReader.peek()) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    JsonElement item = gson.fromJson(jsonReader, JsonElement.class);
+                    itemList.add(getResponseAs(item, clazz));
+                }
+                jsonReader.endArray();
+            } else {
+                // _meta and anything else a page may carry is not needed
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (null == totalCount) {
+            throw new BlackDuckIntegrationException(String.format("The response did not include a %s.", TOTAL_COUNT));
+        }
+        return new BlackDuckPageResponse<>(totalCount, itemList);
+    }
+
     private List<JsonNode> transformPatchToListOfPatches(JsonNode patch) {
         List<JsonNode> listOfPatches = new ArrayList<>();
 
@@ -141,17 +213,35 @@ public class BlackDuckJsonTransformer {
         return listOfPatches;
     }
 
-    private void setPatch(BlackDuckResponse blackDuckResponse) {
-        String lossyJson = gson.toJson(blackDuckResponse);
+    private void restoreJson(BlackDuckResponse blackDuckResponse, JsonElement jsonElement) {
+        blackDuckResponse.setJsonElement(jsonElement);
+        blackDuckResponse.setJson(gson.toJson(jsonElement));
+    }
 
-        try {
-            JsonNode source = objectMapper.readTree(lossyJson);
-            JsonNode target = objectMapper.readTree(blackDuckResponse.getJson());
-            JsonNode patch = JsonDiff.asJson(source, target);
+    private JsonNode getOrCreatePatch(BlackDuckResponse blackDuckResponse) throws IOException {
+        JsonNode patch = blackDuckResponse.getPatch();
+        if (null == patch) {
+            patch = createPatch(blackDuckResponse);
             blackDuckResponse.setPatch(patch);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
+        return patch;
+    }
+
+    private JsonNode createPatch(BlackDuckResponse blackDuckResponse) throws IOException {
+        String json = blackDuckResponse.getJson();
+        if (null == json) {
+            // not from Black Duck, so nothing was lost
+            return JsonNodeFactory.instance.arrayNode();
+        }
+
+        // the response may have been changed since it was read, so the patch
+        // must come from a fresh copy of what Black Duck actually sent
+        BlackDuckResponse asRead = responseResolver.resolve(json, blackDuckResponse.getClass());
+        String lossyJson = gson.toJson(asRead);
+
+        JsonNode source = objectMapper.readTree(lossyJson);
+        JsonNode target = objectMapper.readTree(json);
+        return JsonDiff.asJson(source, target);
     }
 
 }
@@ -0,0 +1,130 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.exception.UncheckedBlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Walks every item of a paged collection while holding at most two pages:
+ * the one being read and the next, which is fetched in the background as
+ * soon as the one before it arrives. No page is requested until the first
+ * call to hasNext.
+ *
+ * Once closed, or once the last page has been read, no further pages are
+ * requested and a page not yet started is skipped. A page that fails throws
+ * an UncheckedBlackDuckIntegrationException and closes the iterator.
+ */
+public class BlackDuckPageIterator<T extends BlackDuckResponse> implements Iterator<T>, AutoCloseable {
+    private final IntFunction<CompletableFuture<BlackDuckPageResponse<T>>> pageFetcher;
+    private final int limit;
+    private final AtomicBoolean closed;
+
+    private int nextOffset;
+    private boolean started = false;
+    private Iterator<T> currentItems = Collections.emptyIterator();
+    private CompletableFuture<BlackDuckPageResponse<T>> nextPage;
+
+    /**
+     * @param pageFetcher starts fetching the page at the given offset - it should skip the page if closed is set by the time it starts
+     * @param closed      set once this iterator is closed
+     */
+    public BlackDuckPageIterator(IntFunction<CompletableFuture<BlackDuckPageResponse<T>>> pageFetcher, int offset, int limit, AtomicBoolean closed) {
+        this.pageFetcher = pageFetcher;
+        this.nextOffset = offset;
+        this.limit = limit;
+        this.closed = closed;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            fetchNextPage();
+        }
+
+        while (!closed.get()) {
+            if (currentItems.hasNext()) {
+                return true;
+            }
+            if (null == nextPage) {
+                close();
+                return false;
+            }
+
+            BlackDuckPageResponse<T> page = waitForNextPage();
+            currentItems = page.getItems().iterator();
+            if (limit > 0 && nextOffset < page.getTotalCount()) {
+                fetchNextPage();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentItems.next();
+    }
+
+    @Override
+    public void close() {
+        closed.set(true);
+        currentItems = Collections.emptyIterator();
+        if (null != nextPage) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void fetchNextPage() {
+        nextPage = pageFetcher.apply(nextOffset);
+        nextOffset += limit;
+    }
+
+    private BlackDuckPageResponse<T> waitForNextPage() {
+        CompletableFuture<BlackDuckPageResponse<T>> page = nextPage;
+        nextPage = null;
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new UncheckedBlackDuckIntegrationException(new BlackDuckIntegrationException("Interrupted while waiting for a page: " + e.getMessage(), e));
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw new UncheckedBlackDuckIntegrationException((IntegrationException) cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new UncheckedBlackDuckIntegrationException(new BlackDuckIntegrationException(cause.getMessage(), cause));
+        }
+    }
+
+}
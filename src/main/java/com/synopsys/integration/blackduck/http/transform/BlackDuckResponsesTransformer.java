@@ -8,51 +8,192 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.jetbrains.annotations.NotNull;
 
+import com.google.gson.JsonParseException;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.BlackDuckView;
 import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.BlackDuckUrl;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.retry.Retrier;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.rest.response.Response;
 
 public class BlackDuckResponsesTransformer {
+    public static final int SEQUENTIAL_PAGING = 1;
+    public static final int DEFAULT_MAX_PAGING_THREADS = 8;
+
+    private static final Executor SHARED_PAGING_EXECUTOR = createPagingExecutor(DEFAULT_MAX_PAGING_THREADS);
+
     private final BlackDuckHttpClient blackDuckHttpClient;
     private final BlackDuckJsonTransformer blackDuckJsonTransformer;
+    private final Retrier retrier;
+    private final Executor executor;
+    private volatile int pagingParallelism = SEQUENTIAL_PAGING;
+    private volatile PageSizePolicy pageSizePolicy = PageSizePolicy.FIXED;
 
     public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, Retrier.never());
+    }
+
+    /**
+     * @param retrier decides which pages are fetched again when their content fails to be read, which happens after the client's own retries - pass a RetryingHttpClient's retrier to draw on the same budget
+     */
+    public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, Retrier retrier) {
+        this(blackDuckHttpClient, blackDuckJsonTransformer, retrier, Runnable::run);
+    }
+
+    /**
+     * @param executor fetches the pages after the first when the paging parallelism is greater than one - a page it rejects is fetched on the calling thread. It should not be an executor whose threads may themselves be waiting on pages, or they can starve each other.
+     */
+    public BlackDuckResponsesTransformer(BlackDuckHttpClient blackDuckHttpClient, BlackDuckJsonTransformer blackDuckJsonTransformer, Retrier retrier, Executor executor) {
         this.blackDuckHttpClient = blackDuckHttpClient;
         this.blackDuckJsonTransformer = blackDuckJsonTransformer;
+        this.retrier = retrier;
+        this.executor = executor;
+    }
+
+    /**
+     * Once the first page has given the total count, every other offset is
+     * known, so up to this many of the following pages are fetched at once.
+     * The items are still returned in page order, and no further pages are
+     * started once enough have matched. The default fetches one page at a
+     * time.
+     */
+    public void setPagingParallelism(int pagingParallelism) {
+        if (pagingParallelism < SEQUENTIAL_PAGING) {
+            throw new IllegalArgumentException("The paging parallelism must be at least 1.");
+        }
+        this.pagingParallelism = pagingParallelism;
+    }
+
+    public int getPagingParallelism() {
+        return pagingParallelism;
+    }
+
+    /**
+     * Chooses the limit for requests that read more than one page and whose
+     * limit was left to the defaults - a limit the caller set, even to
+     * BlackDuckRequestBuilder.DEFAULT_LIMIT, is always kept, as is the limit of
+     * getOnePageOfResponses. Only pages of a size left to the policy are
+     * recorded to it. The default policy keeps every limit as it is.
+     */
+    public void setPageSizePolicy(PageSizePolicy pageSizePolicy) {
+        this.pageSizePolicy = pageSizePolicy;
+    }
+
+    public PageSizePolicy getPageSizePolicy() {
+        return pageSizePolicy;
+    }
+
+    /**
+     * An executor only for fetching pages: its threads never wait on other
+     * tasks, and once all of them are busy - or it has been shut down - a
+     * page is fetched on the thread that wants it instead of queueing. Idle
+     * threads end after a minute and never keep the JVM running.
+     */
+    public static Executor createPagingExecutor(int maxThreads) {
+        ThreadPoolExecutor pagingExecutor = new ThreadPoolExecutor(0, maxThreads, 1, TimeUnit.MINUTES, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "blackduck-paging");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // unlike CallerRunsPolicy, this also runs the page after a shutdown, rather than dropping it and leaving its caller waiting
+        pagingExecutor.setRejectedExecutionHandler((runnable, rejectingExecutor) -> runnable.run());
+        return pagingExecutor;
+    }
+
+    /**
+     * The paging executor every BlackDuckServicesFactory shares, so the
+     * number of paging threads doesn't grow with the number of factories. It
+     * is never shut down - its idle threads simply end.
+     */
+    public static Executor getSharedPagingExecutor() {
+        return SHARED_PAGING_EXECUTOR;
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getSomeMatchingResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, Predicate<T> predicate, int totalLimit) throws IntegrationException {
-        return getInternalMatchingResponse(requestMultiple, totalLimit, predicate);
+        return getInternalMatchingResponse(applyPageSizePolicy(requestMultiple, totalLimit), totalLimit, predicate);
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) throws IntegrationException {
-        return getInternalMatchingResponse(requestMultiple, Integer.MAX_VALUE, alwaysTrue());
+        return getInternalMatchingResponse(applyPageSizePolicy(requestMultiple, Integer.MAX_VALUE), Integer.MAX_VALUE, alwaysTrue());
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getSomeResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int totalLimit) throws IntegrationException {
-        return getInternalMatchingResponse(requestMultiple, totalLimit, alwaysTrue());
+        return getInternalMatchingResponse(applyPageSizePolicy(requestMultiple, totalLimit), totalLimit, alwaysTrue());
     }
 
     public <T extends BlackDuckResponse> BlackDuckPageResponse<T> getOnePageOfResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) throws IntegrationException {
         return getInternalMatchingResponse(requestMultiple, getLimit(requestMultiple), alwaysTrue());
     }
 
+    /**
+     * For collections that change while they are read, such as code
+     * locations that are still being created: each item is returned once,
+     * by href, however the pages shift - and when the total count drops, the
+     * items that moved back past the pages already read are fetched again.
+     * Always reads one page at a time.
+     */
+    public <T extends BlackDuckView> BlackDuckPageResponse<T> getAllDistinctResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) throws IntegrationException {
+        return getInternalDistinctResponse(applyPageSizePolicy(requestMultiple, Integer.MAX_VALUE), Integer.MAX_VALUE, alwaysTrue());
+    }
+
+    public <T extends BlackDuckView> BlackDuckPageResponse<T> getSomeMatchingDistinctResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, Predicate<T> predicate, int totalLimit) throws IntegrationException {
+        return getInternalDistinctResponse(applyPageSizePolicy(requestMultiple, totalLimit), totalLimit, predicate);
+    }
+
+    /**
+     * Every item, fetched a page at a time as the iterator is read - the
+     * caller must close it if it stops before the end.
+     */
+    public <T extends BlackDuckResponse> BlackDuckPageIterator<T> iterateResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> pagedRequest = applyPageSizePolicy(requestMultiple, Integer.MAX_VALUE);
+        AtomicBoolean closed = new AtomicBoolean(false);
+        return new BlackDuckPageIterator<>(offset -> getPageAsync(nextPage(pagedRequest, offset), closed), getOffset(pagedRequest), getLimit(pagedRequest), closed);
+    }
+
+    /**
+     * The items of iterateResponses as a Stream - closing the stream stops
+     * any further pages being requested, so use it in a try-with-resources.
+     * Short-circuiting without closing requests nothing more than the page
+     * already being fetched.
+     */
+    public <T extends BlackDuckResponse> Stream<T> streamResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        BlackDuckPageIterator<T> pageIterator = iterateResponses(requestMultiple);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pageIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                   .onClose(pageIterator::close);
+    }
+
     private <T extends BlackDuckResponse> Predicate<T> alwaysTrue() {
         return (blackDuckResponse) -> true;
     }
@@ -63,36 +204,210 @@ public class BlackDuckResponsesTransformer {
 
         int limit = getLimit(requestMultiple);
         int offset = getOffset(requestMultiple);
-        try (Response initialResponse = blackDuckHttpClient.execute(requestMultiple)) {
-            blackDuckHttpClient.throwExceptionForError(initialResponse);
-            String initialJsonResponse = initialResponse.getContentString();
-            BlackDuckPageResponse<T> blackDuckPageResponse = blackDuckJsonTransformer.getResponses(initialJsonResponse, requestMultiple.getResponseClass());
+        BlackDuckPageResponse<T> blackDuckPageResponse = getPage(requestMultiple);
 
-            allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+        allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
 
-            totalCount = blackDuckPageResponse.getTotalCount();
-            int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
+        totalCount = blackDuckPageResponse.getTotalCount();
+        int totalItemsToRetrieve = Math.min(totalCount, maxToReturn);
 
+        int parallelism = pagingParallelism;
+        if (parallelism > SEQUENTIAL_PAGING && limit > 0) {
+            getRemainingPagesConcurrently(requestMultiple, predicate, allResponses, totalItemsToRetrieve, totalCount, limit, offset + limit, parallelism);
+        } else {
             while (allResponses.size() < totalItemsToRetrieve && offset < totalCount) {
                 offset = offset + limit;
                 requestMultiple = nextPage(requestMultiple, offset);
-                try (Response response = blackDuckHttpClient.execute(requestMultiple)) {
-                    blackDuckHttpClient.throwExceptionForError(response);
-                    String jsonResponse = response.getContentString();
-                    blackDuckPageResponse = blackDuckJsonTransformer.getResponses(jsonResponse, requestMultiple.getResponseClass());
-                    allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
-                } catch (IOException e) {
-                    throw new BlackDuckIntegrationException(e);
+                blackDuckPageResponse = getPage(requestMultiple);
+                allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+            }
+        }
+
+        allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
+        return new BlackDuckPageResponse<>(totalCount, allResponses);
+    }
+
+    /**
+     * Items inserted ahead of the current page push already read items onto
+     * the next one, which the hrefs catch. Items removed ahead of it pull
+     * unread items back into the range already read, so a drop in the total
+     * count re-reads that many items before the current page.
+     */
+    private <T extends BlackDuckView> BlackDuckPageResponse<T> getInternalDistinctResponse(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int maxToReturn, Predicate<T> predicate) throws IntegrationException {
+        HrefFingerprints seenHrefs = new HrefFingerprints();
+        List<T> allResponses = new LinkedList<>();
+
+        int limit = getLimit(requestMultiple);
+        int firstOffset = getOffset(requestMultiple);
+        int offset = firstOffset;
+        BlackDuckPageResponse<T> blackDuckPageResponse = getPage(requestMultiple);
+        int totalCount = blackDuckPageResponse.getTotalCount();
+        addDistinctMatches(blackDuckPageResponse, predicate, seenHrefs, allResponses);
+
+        while (allResponses.size() < maxToReturn && limit > 0 && offset + limit < totalCount) {
+            offset = offset + limit;
+            blackDuckPageResponse = getPage(nextPage(requestMultiple, offset));
+
+            int removedCount = totalCount - blackDuckPageResponse.getTotalCount();
+            totalCount = blackDuckPageResponse.getTotalCount();
+            for (int windowOffset = Math.max(firstOffset, offset - removedCount); windowOffset < offset; windowOffset += limit) {
+                int windowLimit = Math.min(limit, offset - windowOffset);
+                addDistinctMatches(getPage(pageWindow(requestMultiple, windowOffset, windowLimit)), predicate, seenHrefs, allResponses);
+            }
+            addDistinctMatches(blackDuckPageResponse, predicate, seenHrefs, allResponses);
+        }
+
+        allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
+        return new BlackDuckPageResponse<>(totalCount, allResponses);
+    }
+
+    private <T extends BlackDuckView> void addDistinctMatches(BlackDuckPageResponse<T> blackDuckPageResponse, Predicate<T> predicate, HrefFingerprints seenHrefs, List<T> allResponses) {
+        for (T item : blackDuckPageResponse.getItems()) {
+            // an item without an href cannot be a duplicate of anything
+            boolean firstSeen = null == item.getHref() || seenHrefs.add(item.getHref().string());
+            if (firstSeen && predicate.test(item)) {
+                allResponses.add(item);
+            }
+        }
+    }
+
+    /**
+     * Keeps up to parallelism pages in flight and adds them in offset order.
+     * When enough items have matched, the pages not yet started are skipped -
+     * those already running close their responses as usual.
+     */
+    private <T extends BlackDuckResponse> void getRemainingPagesConcurrently(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, Predicate<T> predicate, List<T> allResponses, int totalItemsToRetrieve,
+        int totalCount, int limit, int firstOffset, int parallelism) throws IntegrationException {
+        AtomicBoolean done = new AtomicBoolean(false);
+        Deque<CompletableFuture<BlackDuckPageResponse<T>>> inFlightPages = new ArrayDeque<>();
+        int nextOffset = firstOffset;
+        try {
+            while (allResponses.size() < totalItemsToRetrieve) {
+                while (inFlightPages.size() < parallelism && nextOffset < totalCount) {
+                    inFlightPages.addLast(getPageAsync(nextPage(requestMultiple, nextOffset), done));
+                    nextOffset += limit;
+                }
+                if (inFlightPages.isEmpty()) {
+                    break;
+                }
+                BlackDuckPageResponse<T> blackDuckPageResponse = waitFor(inFlightPages.removeFirst());
+                allResponses.addAll(this.matchPredicate(blackDuckPageResponse, predicate));
+            }
+        } finally {
+            done.set(true);
+        }
+    }
+
+    private <T extends BlackDuckResponse> CompletableFuture<BlackDuckPageResponse<T>> getPageAsync(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, AtomicBoolean done) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (done.get()) {
+                return null;
+            }
+            try {
+                return getPage(requestMultiple);
+            } catch (IntegrationException e) {
+                throw new CompletionException(e);
+            }
+        }, this::executeOrRunHere);
+    }
+
+    private void executeOrRunHere(Runnable pageFetch) {
+        try {
+            executor.execute(pageFetch);
+        } catch (RejectedExecutionException e) {
+            // a saturated or shut down executor must not fail the read
+            pageFetch.run();
+        }
+    }
+
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> waitFor(CompletableFuture<BlackDuckPageResponse<T>> page) throws IntegrationException {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlackDuckIntegrationException("Interrupted while waiting for a page: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new BlackDuckIntegrationException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * A page whose content could not be read or parsed, once the response had
+     * arrived, is fetched again from the same offset if the retrier allows it,
+     * so the pages already fetched are kept. Failures before that - including
+     * error statuses - are left to the client's own retries.
+     */
+    private <T extends BlackDuckResponse> BlackDuckPageResponse<T> getPage(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) throws IntegrationException {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try (Response response = blackDuckHttpClient.execute(requestMultiple)) {
+                blackDuckHttpClient.throwExceptionForError(response);
+                try {
+                    BlackDuckPageResponse<T> blackDuckPageResponse = blackDuckJsonTransformer.getResponses(response.getContent(), requestMultiple.getResponseClass());
+                    recordPage(requestMultiple, blackDuckPageResponse, response.getContentLength(), System.nanoTime() - start);
+                    return blackDuckPageResponse;
+                } catch (IntegrationException e) {
+                    // the client already counted this request against the retry budget
+                    if (!isContentFailure(e) || !retrier.tryRetry(requestMultiple.getRequest(), attempt)) {
+                        throw e;
+                    }
                 }
+            } catch (IOException e) {
+                throw new BlackDuckIntegrationException(e.getMessage(), e);
             }
+            retrier.backoff(attempt);
+        }
+    }
+
+    private boolean isContentFailure(IntegrationException e) {
+        return ExceptionUtils.indexOfType(e, IOException.class) >= 0 || ExceptionUtils.indexOfType(e, JsonParseException.class) >= 0;
+    }
+
+    /**
+     * Never makes a page larger than the caller could want, beyond the
+     * default limit.
+     */
+    private <T extends BlackDuckResponse> BlackDuckRequest<T, UrlMultipleResponses<T>> applyPageSizePolicy(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int maxToReturn) {
+        PageSizePolicy policy = pageSizePolicy;
+        if (PageSizePolicy.FIXED == policy || !requestMultiple.isDefaultLimit()) {
+            return requestMultiple;
+        }
+
+        String template = new BlackDuckUrl(requestMultiple.getUrl()).parseTemplate();
+        int limit = Math.min(policy.getLimit(template, BlackDuckRequestBuilder.DEFAULT_LIMIT), Math.max(maxToReturn, BlackDuckRequestBuilder.DEFAULT_LIMIT));
+        if (limit == BlackDuckRequestBuilder.DEFAULT_LIMIT) {
+            return requestMultiple;
+        }
+
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder(requestMultiple);
+        blackDuckRequestBuilder.setDefaultLimit(limit);
+        return new BlackDuckRequest<>(blackDuckRequestBuilder, requestMultiple.getUrlResponse());
+    }
 
-            allResponses = onlyReturnMaxRequested(maxToReturn, allResponses);
-            return new BlackDuckPageResponse<>(totalCount, allResponses);
-        } catch (IOException e) {
-            throw new BlackDuckIntegrationException(e.getMessage(), e);
+    private <T extends BlackDuckResponse> void recordPage(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, BlackDuckPageResponse<T> blackDuckPageResponse, Long contentLength, long nanos) {
+        PageSizePolicy policy = pageSizePolicy;
+        // only pages of a size the policy chose tell it anything
+        if (PageSizePolicy.FIXED != policy && requestMultiple.isDefaultLimit()) {
+            String template = new BlackDuckUrl(requestMultiple.getUrl()).parseTemplate();
+            policy.record(template, getLimit(requestMultiple), blackDuckPageResponse.getItems().size(), null == contentLength ? -1 : contentLength, nanos);
         }
     }
 
+    private <T extends BlackDuckResponse> BlackDuckRequest<T, UrlMultipleResponses<T>> pageWindow(BlackDuckRequest<T, UrlMultipleResponses<T>> blackDuckRequest, int offset, int limit) {
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder(blackDuckRequest);
+        blackDuckRequestBuilder.setLimitAndOffset(limit, offset);
+
+        return new BlackDuckRequest<>(blackDuckRequestBuilder, blackDuckRequest.getUrlResponse());
+    }
+
     private <T extends BlackDuckResponse> BlackDuckRequest<T, UrlMultipleResponses<T>> nextPage(BlackDuckRequest<T, UrlMultipleResponses<T>> blackDuckRequest, int offset) {
         BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder(blackDuckRequest);
         blackDuckRequestBuilder.setOffset(offset);
@@ -0,0 +1,82 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+/**
+ * The hrefs already seen while paging, kept as 64 bit fingerprints in an
+ * open addressing table rather than as strings - around 16 bytes an href,
+ * however long it is. Two different hrefs share a fingerprint with a
+ * probability of about n^2 / 2^65, which is negligible for any collection
+ * Black Duck can return.
+ */
+public class HrefFingerprints {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long EMPTY = 0;
+
+    private long[] fingerprints = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @return true if the href had not been seen before
+     */
+    public boolean add(String href) {
+        if ((size + 1) * 2 > fingerprints.length) {
+            resize();
+        }
+        return insert(fingerprints, fingerprint(href));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean insert(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        int index = (int) fingerprint & mask;
+        while (EMPTY != table[index]) {
+            if (fingerprint == table[index]) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = fingerprint;
+        if (table == fingerprints) {
+            size++;
+        }
+        return true;
+    }
+
+    private void resize() {
+        long[] resized = new long[fingerprints.length * 2];
+        for (long fingerprint : fingerprints) {
+            if (EMPTY != fingerprint) {
+                insert(resized, fingerprint);
+            }
+        }
+        fingerprints = resized;
+    }
+
+    /**
+     * FNV-1a over the characters, then the MurmurHash3 finalizer so that the
+     * low bits used for the table index are well mixed.
+     */
+    private long fingerprint(String href) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < href.length(); i++) {
+            hash ^= href.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return EMPTY == hash ? 1 : hash;
+    }
+
+}
@@ -0,0 +1,27 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform;
+
+/**
+ * Chooses the limit used to page through an endpoint, given its path with
+ * the ids collapsed (BlackDuckUrl.parseTemplate()), and learns from how each
+ * page went.
+ */
+@FunctionalInterface
+public interface PageSizePolicy {
+    PageSizePolicy FIXED = (template, requestedLimit) -> requestedLimit;
+
+    int getLimit(String template, int requestedLimit);
+
+    /**
+     * @param contentLength the length of the page in bytes, or negative if the server did not say
+     */
+    default void record(String template, int limit, int itemCount, long contentLength, long nanos) {
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.http.transform.adapter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.synopsys.integration.rest.RestConstants;
+
+/**
+ * Reads and writes the Black Duck date format without a lock. Gson's own
+ * date adapter shares one SimpleDateFormat behind a lock, so every date of
+ * every view being parsed, on any thread, waits its turn - and views carry
+ * several dates each.
+ *
+ * Dates in exactly the Black Duck format, in the default time zone as Gson
+ * has always read them, are handled here. Anything else (other formats, an
+ * ambiguous local time, years the calendars disagree on) goes to Gson's
+ * adapter, so the results are always the same as before.
+ */
+public class BlackDuckDateTypeAdapter extends TypeAdapter<Date> {
+    // yyyy-MM-dd'T'HH:mm:ss.SSS'Z'
+    private static final int DATE_LENGTH = 24;
+    private static final int MIN_YEAR = 1900;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(RestConstants.JSON_DATE_FORMAT, Locale.US);
+
+    private final TypeAdapter<Date> fallback;
+
+    public static TypeAdapter<Date> create() {
+        TypeAdapter<Date> gsonDateAdapter = new GsonBuilder()
+                                                .setDateFormat(RestConstants.JSON_DATE_FORMAT)
+                                                .create()
+                                                .getAdapter(Date.class);
+        return new BlackDuckDateTypeAdapter(gsonDateAdapter).nullSafe();
+    }
+
+    public BlackDuckDateTypeAdapter(TypeAdapter<Date> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void write(JsonWriter out, Date value) throws IOException {
+        ZonedDateTime dateTime = value.toInstant().atZone(ZoneId.systemDefault());
+        if (dateTime.getYear() < MIN_YEAR || dateTime.getYear() > 9999) {
+            fallback.write(out, value);
+            return;
+        }
+        out.value(FORMATTER.format(dateTime));
+    }
+
+    @Override
+    public Date read(JsonReader in) throws IOException {
+        if (JsonToken.STRING != in.peek()) {
+            return fallback.read(in);
+        }
+
+        String json = in.nextString();
+        Date date = parse(json);
+        if (null != date) {
+            return date;
+        }
+        return fallback.fromJsonTree(new JsonPrimitive(json));
+    }
+
+    static Date parse(String json) {
+        if (DATE_LENGTH != json.length()
+                || '-' != json.charAt(4) || '-' != json.charAt(7) || 'T' != json.charAt(10)
+                || ':' != json.charAt(13) || ':' != json.charAt(16) || '.' != json.charAt(19) || 'Z' != json.charAt(23)) {
+            return null;
+        }
+
+        int year = parseDigits(json, 0, 4);
+        int month = parseDigits(json, 5, 7);
+        int day = parseDigits(json, 8, 10);
+        int hour = parseDigits(json, 11, 13);
+        int minute = parseDigits(json, 14, 16);
+        int second = parseDigits(json, 17, 19);
+        int millisecond = parseDigits(json, 20, 23);
+        if (year < MIN_YEAR || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || millisecond < 0) {
+            return null;
+        }
+
+        try {
+            LocalDateTime localDateTime = LocalDateTime.of(year, month, day, hour, minute, second, millisecond * 1_000_000);
+            ZoneId zone = ZoneId.systemDefault();
+            if (1 != zone.getRules().getValidOffsets(localDateTime).size()) {
+                // a gap or overlap - leave the resolution to SimpleDateFormat
+                return null;
+            }
+            return Date.from(localDateTime.atZone(zone).toInstant());
+        } catch (DateTimeException e) {
+            // out of range fields are rolled over by the lenient SimpleDateFormat
+            return null;
+        }
+    }
+
+    private static int parseDigits(String json, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+}
@@ -22,4 +22,16 @@ public abstract class BlackDuckResponseSubclassResolver<T extends BlackDuckRespo
 
     public abstract Class<? extends BlackDuckResponse> resolveSubclass(JsonElement jsonElement);
 
+    /**
+     * Reads only the field that decides the subclass, so the response itself
+     * is bound just once - as the subclass.
+     */
+    protected <F> F readDiscriminator(JsonElement jsonElement, String fieldName, Class<F> fieldClass) {
+        if (null == jsonElement || !jsonElement.isJsonObject()) {
+            return null;
+        }
+        JsonElement field = jsonElement.getAsJsonObject().get(fieldName);
+        return null == field ? null : gson.fromJson(field, fieldClass);
+    }
+
 }
@@ -10,6 +10,7 @@ package com.synopsys.integration.blackduck.http.transform.subclass;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.manual.enumeration.NotificationType;
 import com.synopsys.integration.blackduck.api.manual.view.BomEditNotificationUserView;
 import com.synopsys.integration.blackduck.api.manual.view.LicenseLimitNotificationUserView;
 import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
@@ -23,14 +24,19 @@ import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocation
 import com.synopsys.integration.blackduck.api.manual.view.VulnerabilityNotificationUserView;
 
 public class NotificationUserViewSubclassResolver extends BlackDuckResponseSubclassResolver<NotificationUserView> {
+    private static final String TYPE_FIELD = "type";
+
     public NotificationUserViewSubclassResolver(Gson gson) {
         super(gson, NotificationUserView.class);
     }
 
     @Override
     public Class<? extends BlackDuckResponse> resolveSubclass(JsonElement jsonElement) {
-        SimpleNotificationView simpleNotificationView = gson.fromJson(jsonElement, SimpleNotificationView.class);
-        switch (simpleNotificationView.type) {
+        NotificationType type = readDiscriminator(jsonElement, TYPE_FIELD, NotificationType.class);
+        if (null == type) {
+            return UnknownNotificationUserView.class;
+        }
+        switch (type) {
             case BOM_EDIT:
                 return BomEditNotificationUserView.class;
             case LICENSE_LIMIT:
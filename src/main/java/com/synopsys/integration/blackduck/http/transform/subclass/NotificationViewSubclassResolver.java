@@ -10,6 +10,7 @@ package com.synopsys.integration.blackduck.http.transform.subclass;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.manual.enumeration.NotificationType;
 import com.synopsys.integration.blackduck.api.manual.view.BomEditNotificationView;
 import com.synopsys.integration.blackduck.api.manual.view.LicenseLimitNotificationView;
 import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
@@ -23,14 +24,19 @@ import com.synopsys.integration.blackduck.api.manual.view.VersionBomCodeLocation
 import com.synopsys.integration.blackduck.api.manual.view.VulnerabilityNotificationView;
 
 public class NotificationViewSubclassResolver extends BlackDuckResponseSubclassResolver<NotificationView> {
+    private static final String TYPE_FIELD = "type";
+
     public NotificationViewSubclassResolver(Gson gson) {
         super(gson, NotificationView.class);
     }
 
     @Override
     public Class<? extends BlackDuckResponse> resolveSubclass(JsonElement jsonElement) {
-        SimpleNotificationView simpleNotificationView = gson.fromJson(jsonElement, SimpleNotificationView.class);
-        switch (simpleNotificationView.type) {
+        NotificationType type = readDiscriminator(jsonElement, TYPE_FIELD, NotificationType.class);
+        if (null == type) {
+            return UnknownNotificationView.class;
+        }
+        switch (type) {
             case BOM_EDIT:
                 return BomEditNotificationView.class;
             case LICENSE_LIMIT:
@@ -1,16 +0,0 @@
-/*
- * blackduck-common
- *
- * Copyright (c) 2021 Synopsys, Inc.
- *
- * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
- */
-package com.synopsys.integration.blackduck.http.transform.subclass;
-
-import com.synopsys.integration.blackduck.api.core.BlackDuckView;
-import com.synopsys.integration.blackduck.api.manual.enumeration.NotificationType;
-
-public class SimpleNotificationView extends BlackDuckView {
-    public NotificationType type;
-
-}
@@ -23,6 +23,11 @@ public class RapidScanRequestBuilder {
                                            .acceptMimeType(DeveloperScanComponentResultView.CURRENT_MEDIA_TYPE);
     }
 
+    public RapidScanRequestBuilder noCache() {
+        blackDuckRequestBuilder.noCache();
+        return this;
+    }
+
     public BlackDuckResponseRequest createResponseRequest(HttpUrl httpUrl) {
         return blackDuckRequestBuilder.buildBlackDuckResponseRequest(httpUrl);
     }
@@ -31,7 +31,9 @@ public class RapidScanWaitJobCondition implements WaitJobCondition {
 
     @Override
     public boolean isComplete() throws IntegrationException {
+        // each poll needs a fresh answer, even if a 404 is being remembered for other callers
         BlackDuckResponseRequest request = new RapidScanRequestBuilder()
+                                               .noCache()
                                                .createResponseRequest(resultUrl);
         try (Response response = blackDuckApiClient.execute(request)) {
             return response.isStatusCodeSuccess();
@@ -0,0 +1,107 @@
+/*
+ * blackduck-common
+ *
+ * Copyright (c) 2021 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.blackduck.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.core.response.UrlResponse;
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.blackduck.service.request.BlackDuckResponseRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * The reads of BlackDuckApiClient, returning futures instead of blocking the
+ * caller. The requests go through the same BlackDuckHttpClient, so they share
+ * its authentication, caching and any other layers it was built with.
+ *
+ * Each request runs on the given executor - with a same-thread executor the
+ * futures are already complete when they are returned. A failed request
+ * completes its future exceptionally with a CompletionException whose cause
+ * is the IntegrationException the blocking call would have thrown.
+ */
+public class AsyncBlackDuckApiClient {
+    private final BlackDuckHttpClient blackDuckHttpClient;
+    private final BlackDuckApiClient blackDuckApiClient;
+    private final Executor executor;
+
+    public AsyncBlackDuckApiClient(BlackDuckHttpClient blackDuckHttpClient, BlackDuckApiClient blackDuckApiClient, Executor executor) {
+        this.blackDuckHttpClient = blackDuckHttpClient;
+        this.blackDuckApiClient = blackDuckApiClient;
+        this.executor = executor;
+    }
+
+    /**
+     * The asynchronous BlackDuckHttpClient.execute - the response is not
+     * checked for an error status, and the caller must close it.
+     */
+    public <T extends BlackDuckResponse, U extends UrlResponse<T>> CompletableFuture<Response> executeUnchecked(BlackDuckRequest<T, U> blackDuckRequest) {
+        return supplyAsync(() -> blackDuckHttpClient.execute(blackDuckRequest));
+    }
+
+    /**
+     * As with BlackDuckApiClient.execute, an error status completes the
+     * future exceptionally - otherwise the caller must close the response.
+     */
+    public CompletableFuture<Response> execute(BlackDuckResponseRequest request) {
+        return supplyAsync(() -> blackDuckApiClient.execute(request));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(HttpUrl url, Class<T> responseClass) {
+        return supplyAsync(() -> blackDuckApiClient.getResponse(url, responseClass));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(UrlSingleResponse<T> urlSingleResponse) {
+        return supplyAsync(() -> blackDuckApiClient.getResponse(urlSingleResponse));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<T> getResponse(BlackDuckRequest<T, UrlSingleResponse<T>> requestSingle) {
+        return supplyAsync(() -> blackDuckApiClient.getResponse(requestSingle));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<List<T>> getAllResponses(UrlMultipleResponses<T> urlMultipleResponses) {
+        return supplyAsync(() -> blackDuckApiClient.getAllResponses(urlMultipleResponses));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<List<T>> getAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return supplyAsync(() -> blackDuckApiClient.getAllResponses(requestMultiple));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<List<T>> getSomeResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple, int totalLimit) {
+        return supplyAsync(() -> blackDuckApiClient.getSomeResponses(requestMultiple, totalLimit));
+    }
+
+    public <T extends BlackDuckResponse> CompletableFuture<BlackDuckPageResponse<T>> getPageResponse(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return supplyAsync(() -> blackDuckApiClient.getPageResponse(requestMultiple));
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    private <R> CompletableFuture<R> supplyAsync(ThrowingSupplier<R, IntegrationException> blackDuckCall) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return blackDuckCall.get();
+            } catch (IntegrationException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+}
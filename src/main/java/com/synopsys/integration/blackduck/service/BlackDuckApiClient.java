@@ -10,6 +10,7 @@ package com.synopsys.integration.blackduck.service;
 import java.io.IOException;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import com.synopsys.integration.blackduck.api.core.BlackDuckComponent;
 import com.synopsys.integration.blackduck.api.core.BlackDuckPath;
@@ -21,6 +22,7 @@ import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckJsonTransformer;
+import com.synopsys.integration.blackduck.http.transform.BlackDuckPageIterator;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponseTransformer;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponsesTransformer;
 import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
@@ -57,6 +59,37 @@ public class BlackDuckApiClient {
         return blackDuckResponsesTransformer.getAllResponses(requestMultiple).getItems();
     }
 
+    /**
+     * For collections that can change while they are read - each item is
+     * returned once, see BlackDuckResponsesTransformer.getAllDistinctResponses.
+     */
+    public <T extends BlackDuckView> List<T> getAllDistinctResponses(UrlMultipleResponses<T> urlMultipleResponses) throws IntegrationException {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(new BlackDuckRequestBuilder().commonGet(), urlMultipleResponses);
+        return getAllDistinctResponses(requestMultiple);
+    }
+
+    public <T extends BlackDuckView> List<T> getAllDistinctResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) throws IntegrationException {
+        return blackDuckResponsesTransformer.getAllDistinctResponses(requestMultiple).getItems();
+    }
+
+    /**
+     * Every item, holding no more than two pages in memory at once - see
+     * BlackDuckResponsesTransformer.streamResponses. An error reading a page
+     * is thrown as an UncheckedBlackDuckIntegrationException.
+     */
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(UrlMultipleResponses<T> urlMultipleResponses) {
+        BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(new BlackDuckRequestBuilder().commonGet(), urlMultipleResponses);
+        return streamAllResponses(requestMultiple);
+    }
+
+    public <T extends BlackDuckResponse> Stream<T> streamAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return blackDuckResponsesTransformer.streamResponses(requestMultiple);
+    }
+
+    public <T extends BlackDuckResponse> BlackDuckPageIterator<T> iterateAllResponses(BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple) {
+        return blackDuckResponsesTransformer.iterateResponses(requestMultiple);
+    }
+
     public <T extends BlackDuckResponse> List<T> getSomeMatchingResponses(UrlMultipleResponses<T> urlMultipleResponses, Predicate<T> predicate, int totalLimit) throws IntegrationException {
         BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder().commonGet();
         BlackDuckRequest<T, UrlMultipleResponses<T>> requestMultiple = new BlackDuckRequest<>(blackDuckRequestBuilder, urlMultipleResponses);
@@ -126,6 +159,10 @@ public class BlackDuckApiClient {
     // ------------------------------------------------
     public void put(BlackDuckView blackDuckView) throws IntegrationException {
         HttpUrl url = blackDuckView.getHref();
+        if (!blackDuckJsonTransformer.isRetainingJson() && null == blackDuckView.getJson() && null == blackDuckView.getPatch()) {
+            // a lean view needs Black Duck's json to put back what its fields can't hold
+            restoreJson(blackDuckView);
+        }
         // add the 'missing' pieces back from view that could have been lost
         String json = blackDuckJsonTransformer.producePatchedJson(blackDuckView);
         BlackDuckResponseRequest request = new BlackDuckRequestBuilder()
@@ -137,6 +174,16 @@ public class BlackDuckApiClient {
         }
     }
 
+    /**
+     * Fetches the view's json again, for views read by a factory with lean
+     * views - afterwards getJson() and getJsonElement() return what Black
+     * Duck currently has for it.
+     */
+    public void restoreJson(BlackDuckView blackDuckView) throws IntegrationException {
+        String json = fetchJson(blackDuckView.getHref(), blackDuckView.getClass());
+        blackDuckJsonTransformer.restoreJson(blackDuckView, json);
+    }
+
     // ------------------------------------------------
     // handling generic get
     // ------------------------------------------------
@@ -150,7 +197,13 @@ public class BlackDuckApiClient {
     // ------------------------------------------------
     public Response execute(BlackDuckResponseRequest request) throws IntegrationException {
         Response response = blackDuckHttpClient.execute(request);
-        blackDuckHttpClient.throwExceptionForError(response);
+        try {
+            blackDuckHttpClient.throwExceptionForError(response);
+        } catch (IntegrationException | RuntimeException e) {
+            // the caller never gets the response, so it can't close it
+            closeQuietly(response);
+            throw e;
+        }
         return response;
     }
 
@@ -165,8 +218,27 @@ public class BlackDuckApiClient {
         }
     }
 
+    private <T extends BlackDuckView> String fetchJson(HttpUrl url, Class<T> viewClass) throws IntegrationException {
+        // the same request getResponse would make, so the same media type is returned
+        BlackDuckRequest<T, UrlSingleResponse<T>> request = new BlackDuckRequest<>(new BlackDuckRequestBuilder().commonGet(), new UrlSingleResponse<>(url, viewClass));
+        try (Response response = blackDuckHttpClient.execute(request)) {
+            blackDuckHttpClient.throwExceptionForError(response);
+            return response.getContentString();
+        } catch (IOException e) {
+            throw new IntegrationException(e.getMessage(), e);
+        }
+    }
+
     private BlackDuckRequestBuilder createCommonGetRequestBuilder(HttpUrl url) {
         return new BlackDuckRequestBuilder().url(url);
     }
 
+    private void closeQuietly(Response response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // the response is being thrown away
+        }
+    }
+
 }
@@ -8,6 +8,8 @@
 package com.synopsys.integration.blackduck.service;
 
 import java.io.File;
+import java.util.Date;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
@@ -33,9 +35,13 @@ import com.synopsys.integration.blackduck.codelocation.intelligentpersistence.In
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.ScanBatchRunner;
 import com.synopsys.integration.blackduck.codelocation.signaturescanner.SignatureScannerService;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.DelegatingBlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.retry.Retrier;
+import com.synopsys.integration.blackduck.http.client.retry.RetryingHttpClient;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckJsonTransformer;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponseTransformer;
 import com.synopsys.integration.blackduck.http.transform.BlackDuckResponsesTransformer;
+import com.synopsys.integration.blackduck.http.transform.adapter.BlackDuckDateTypeAdapter;
 import com.synopsys.integration.blackduck.http.transform.subclass.BlackDuckResponseResolver;
 import com.synopsys.integration.blackduck.scan.RapidScanService;
 import com.synopsys.integration.blackduck.scan.RapidScanWaiter;
@@ -89,9 +95,11 @@ public class BlackDuckServicesFactory {
     }
 
     public static GsonBuilder createDefaultGsonBuilder() {
+        // dates are read without a lock - anything else about the format is as it always was
         return new GsonBuilder()
                    .setLenient()
-                   .setDateFormat(RestConstants.JSON_DATE_FORMAT);
+                   .setDateFormat(RestConstants.JSON_DATE_FORMAT)
+                   .registerTypeAdapter(Date.class, BlackDuckDateTypeAdapter.create());
     }
 
     public BlackDuckServicesFactory(IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient) {
@@ -100,6 +108,16 @@ public class BlackDuckServicesFactory {
 
     public BlackDuckServicesFactory(IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, Gson gson,
         ObjectMapper objectMapper) {
+        this(intEnvironmentVariables, executorService, logger, blackDuckHttpClient, gson, objectMapper, false);
+    }
+
+    /**
+     * @param leanViews if true, the views read keep only their typed fields and not the json they were read from, which takes
+     *                  several times the memory - BlackDuckApiClient.put fetches the json again when it is needed, and
+     *                  BlackDuckApiClient.restoreJson does the same for anything else that needs getJson()
+     */
+    public BlackDuckServicesFactory(IntEnvironmentVariables intEnvironmentVariables, ExecutorService executorService, IntLogger logger, BlackDuckHttpClient blackDuckHttpClient, Gson gson,
+        ObjectMapper objectMapper, boolean leanViews) {
         this.intEnvironmentVariables = intEnvironmentVariables;
         this.executorService = executorService;
         this.logger = logger;
@@ -108,16 +126,32 @@ public class BlackDuckServicesFactory {
         this.objectMapper = objectMapper;
 
         blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
-        blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger);
+        blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger, !leanViews);
         blackDuckResponseTransformer = new BlackDuckResponseTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
-        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer);
+        blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, findRetrier(blackDuckHttpClient),
+            BlackDuckResponsesTransformer.getSharedPagingExecutor());
         apiDiscovery = new ApiDiscovery(blackDuckHttpClient.getBlackDuckUrl());
 
         blackDuckApiClient = new BlackDuckApiClient(blackDuckHttpClient, blackDuckJsonTransformer, blackDuckResponseTransformer, blackDuckResponsesTransformer);
     }
 
+    public AsyncBlackDuckApiClient createAsyncBlackDuckApiClient() {
+        return createAsyncBlackDuckApiClient(executorService);
+    }
+
+    public AsyncBlackDuckApiClient createAsyncBlackDuckApiClient(Executor executor) {
+        return new AsyncBlackDuckApiClient(blackDuckHttpClient, blackDuckApiClient, executor);
+    }
+
     public BdioUploadService createBdioUploadService() {
-        return new BdioUploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBatchRunner(logger, blackDuckApiClient, apiDiscovery, executorService),
+        return createBdioUploadService(false);
+    }
+
+    /**
+     * @param gzipUploads send the BDIO gzip compressed, falling back to uncompressed if Black Duck rejects it
+     */
+    public BdioUploadService createBdioUploadService(boolean gzipUploads) {
+        return new BdioUploadService(blackDuckApiClient, apiDiscovery, logger, new UploadBatchRunner(logger, blackDuckApiClient, apiDiscovery, executorService, gzipUploads),
             createCodeLocationCreationService());
     }
 
@@ -216,15 +250,29 @@ public class BlackDuckServicesFactory {
     }
 
     public RapidScanService createRapidScanService() {
+        return createRapidScanService(false);
+    }
+
+    /**
+     * @param gzipUploads send the BDIO gzip compressed, falling back to uncompressed if Black Duck rejects it
+     */
+    public RapidScanService createRapidScanService(boolean gzipUploads) {
         RapidScanWaiter rapidScanWaiter = new RapidScanWaiter(logger, blackDuckApiClient);
-        Bdio2StreamUploader bdio2Uploader = new Bdio2StreamUploader(blackDuckApiClient, apiDiscovery, logger, ApiDiscovery.DEVELOPER_SCANS_PATH, RapidScanService.CONTENT_TYPE);
+        Bdio2StreamUploader bdio2Uploader = new Bdio2StreamUploader(blackDuckApiClient, apiDiscovery, logger, ApiDiscovery.DEVELOPER_SCANS_PATH, RapidScanService.CONTENT_TYPE, gzipUploads);
         Bdio2FileUploadService bdio2FileUploadService = new Bdio2FileUploadService(blackDuckApiClient, apiDiscovery, logger, new Bdio2ContentExtractor(), bdio2Uploader);
         return new RapidScanService(bdio2FileUploadService, rapidScanWaiter);
     }
 
     public IntelligentPersistenceService createIntelligentPersistenceService() {
+        return createIntelligentPersistenceService(false);
+    }
+
+    /**
+     * @param gzipUploads send the BDIO gzip compressed, falling back to uncompressed if Black Duck rejects it
+     */
+    public IntelligentPersistenceService createIntelligentPersistenceService(boolean gzipUploads) {
         Bdio2StreamUploader bdio2Uploader = new Bdio2StreamUploader(blackDuckApiClient, apiDiscovery, logger, ApiDiscovery.INTELLIGENT_PERSISTENCE_SCANS_PATH,
-            IntelligentPersistenceService.CONTENT_TYPE);
+            IntelligentPersistenceService.CONTENT_TYPE, gzipUploads);
         Bdio2FileUploadService bdio2FileUploadService = new Bdio2FileUploadService(blackDuckApiClient, apiDiscovery, logger, new Bdio2ContentExtractor(), bdio2Uploader);
         IntelligentPersistenceBatchRunner batchRunner = new IntelligentPersistenceBatchRunner(logger, executorService, bdio2FileUploadService);
         return new IntelligentPersistenceService(blackDuckApiClient, apiDiscovery, logger, batchRunner, createCodeLocationCreationService());
@@ -282,9 +330,29 @@ public class BlackDuckServicesFactory {
         return blackDuckApiClient;
     }
 
+    public boolean isLeanViews() {
+        return !blackDuckJsonTransformer.isRetainingJson();
+    }
+
     @Override
     public String toString() {
         return ReflectionToStringBuilder.toString(this, ToStringStyle.JSON_STYLE);
     }
 
+    /**
+     * Pages whose content fails to be read are fetched again with the retrier
+     * of a RetryingHttpClient anywhere in the client chain, so both share one
+     * retry budget - the client retries everything else.
+     */
+    private static Retrier findRetrier(BlackDuckHttpClient blackDuckHttpClient) {
+        BlackDuckHttpClient client = blackDuckHttpClient;
+        while (client instanceof DelegatingBlackDuckHttpClient) {
+            if (client instanceof RetryingHttpClient) {
+                return ((RetryingHttpClient) client).getRetrier();
+            }
+            client = ((DelegatingBlackDuckHttpClient) client).getDelegate();
+        }
+        return Retrier.never();
+    }
+
 }
@@ -9,6 +9,7 @@ package com.synopsys.integration.blackduck.service.dataservice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
@@ -19,9 +20,12 @@ import com.synopsys.integration.blackduck.api.generated.response.ComponentsView;
 import com.synopsys.integration.blackduck.api.generated.view.ComponentVersionView;
 import com.synopsys.integration.blackduck.api.generated.view.PolicyRuleView;
 import com.synopsys.integration.blackduck.exception.BlackDuckIntegrationException;
+import com.synopsys.integration.blackduck.http.BlackDuckQuery;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.DataService;
 import com.synopsys.integration.blackduck.service.model.PolicyRuleExpressionSetBuilder;
+import com.synopsys.integration.blackduck.service.request.BlackDuckMultipleRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -38,13 +42,18 @@ public class PolicyRuleService extends DataService {
     }
 
     public Optional<PolicyRuleView> getPolicyRuleViewByName(String policyRuleName) throws IntegrationException {
-        List<PolicyRuleView> allPolicyRules = blackDuckApiClient.getAllResponses(policyRulesResponses);
-        for (PolicyRuleView policyRule : allPolicyRules) {
-            if (policyRuleName.equals(policyRule.getName())) {
-                return Optional.of(policyRule);
-            }
-        }
-        return Optional.empty();
+        BlackDuckQuery blackDuckQuery = new BlackDuckQuery("name", policyRuleName);
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .addBlackDuckQuery(blackDuckQuery);
+
+        // the query also matches names that only contain the one we want
+        Predicate<PolicyRuleView> predicate = policyRule -> policyRuleName.equals(policyRule.getName());
+
+        BlackDuckMultipleRequest<PolicyRuleView> requestMultiple = blackDuckRequestBuilder.buildBlackDuckRequest(policyRulesResponses);
+        return blackDuckApiClient.getSomeMatchingResponses(requestMultiple, predicate, 1)
+                   .stream()
+                   .findFirst();
     }
 
     public HttpUrl createPolicyRule(PolicyRuleView policyRuleView) throws IntegrationException {
@@ -51,14 +51,17 @@ public class ProjectGetService extends DataService {
     }
 
     public Optional<ProjectView> getProjectViewByProjectName(String projectName) throws IntegrationException {
-        List<ProjectView> allProjectItems = getAllProjectMatches(projectName);
-        for (ProjectView project : allProjectItems) {
-            if (projectName.equalsIgnoreCase(project.getName())) {
-                return Optional.of(project);
-            }
-        }
+        BlackDuckQuery blackDuckQuery = new BlackDuckQuery("name", projectName);
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .addBlackDuckQuery(blackDuckQuery);
 
-        return Optional.empty();
+        BlackDuckMultipleRequest<ProjectView> requestMultiple = blackDuckRequestBuilder.buildBlackDuckRequest(projectsResponses);
+        Predicate<ProjectView> predicate = projectView -> projectName.equalsIgnoreCase(projectView.getName());
+
+        return blackDuckApiClient.getSomeMatchingResponses(requestMultiple, predicate, 1)
+                   .stream()
+                   .findFirst();
     }
 
     public Optional<ProjectVersionView> getProjectVersionViewByProjectVersionName(ProjectView projectView, String projectVersionName) throws IntegrationException {
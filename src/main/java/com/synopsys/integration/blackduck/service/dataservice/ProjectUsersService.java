@@ -14,7 +14,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
 import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
 import com.synopsys.integration.blackduck.api.generated.view.UserGroupView;
@@ -122,17 +121,8 @@ public class ProjectUsersService extends DataService {
     }
 
     public void addUserToProject(ProjectView projectView, String username) throws IntegrationException {
-        UrlMultipleResponses<UserView> userResponses = apiDiscovery.metaUsersLink();
-        List<UserView> allUsers = blackDuckApiClient.getAllResponses(userResponses);
-        UserView userView = null;
-        for (UserView user : allUsers) {
-            if (user.getUserName().equalsIgnoreCase(username)) {
-                userView = user;
-            }
-        }
-        if (null == userView) {
-            throw new BlackDuckIntegrationException(String.format("The user (%s) does not exist.", username));
-        }
+        UserView userView = userGroupService.getUserByUsername(username)
+                                .orElseThrow(() -> new BlackDuckIntegrationException(String.format("The user (%s) does not exist.", username)));
         addUserToProject(projectView, userView);
     }
 
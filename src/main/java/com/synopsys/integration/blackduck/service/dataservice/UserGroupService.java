@@ -23,8 +23,11 @@ import com.synopsys.integration.blackduck.api.generated.view.RoleAssignmentView;
 import com.synopsys.integration.blackduck.api.generated.view.UserGroupView;
 import com.synopsys.integration.blackduck.api.generated.view.UserView;
 import com.synopsys.integration.blackduck.api.manual.temporary.component.UserGroupRequest;
+import com.synopsys.integration.blackduck.http.BlackDuckQuery;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
 import com.synopsys.integration.blackduck.service.DataService;
+import com.synopsys.integration.blackduck.service.request.BlackDuckMultipleRequest;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpUrl;
@@ -43,8 +46,14 @@ public class UserGroupService extends DataService {
     }
 
     public Optional<UserView> getUserByUsername(String username) throws IntegrationException {
+        BlackDuckQuery blackDuckQuery = new BlackDuckQuery("userName", username);
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .addBlackDuckQuery(blackDuckQuery);
+
         Predicate<UserView> predicate = userView -> MATCHING_USERNAME.test(username, userView);
-        List<UserView> matchingUsers = blackDuckApiClient.getSomeMatchingResponses(apiDiscovery.metaUsersLink(), predicate, 1);
+        BlackDuckMultipleRequest<UserView> requestMultiple = blackDuckRequestBuilder.buildBlackDuckRequest(apiDiscovery.metaUsersLink());
+        List<UserView> matchingUsers = blackDuckApiClient.getSomeMatchingResponses(requestMultiple, predicate, 1);
         if (!matchingUsers.isEmpty()) {
             return Optional.ofNullable(matchingUsers.get(0));
         }
@@ -117,11 +126,16 @@ public class UserGroupService extends DataService {
     }
 
     public Optional<UserGroupView> getGroupByName(String groupName) throws IntegrationException {
-        List<UserGroupView> allGroups = blackDuckApiClient.getAllResponses(apiDiscovery.metaUsergroupsLink());
-        for (UserGroupView group : allGroups) {
-            if (group.getName().equalsIgnoreCase(groupName)) {
-                return Optional.of(group);
-            }
+        BlackDuckQuery blackDuckQuery = new BlackDuckQuery("name", groupName);
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .addBlackDuckQuery(blackDuckQuery);
+
+        Predicate<UserGroupView> predicate = group -> group.getName().equalsIgnoreCase(groupName);
+        BlackDuckMultipleRequest<UserGroupView> requestMultiple = blackDuckRequestBuilder.buildBlackDuckRequest(apiDiscovery.metaUsergroupsLink());
+        List<UserGroupView> matchingGroups = blackDuckApiClient.getSomeMatchingResponses(requestMultiple, predicate, 1);
+        if (!matchingGroups.isEmpty()) {
+            return Optional.of(matchingGroups.get(0));
         }
         logger.error(String.format("The group (%s) does not exist.", groupName));
         return Optional.empty();
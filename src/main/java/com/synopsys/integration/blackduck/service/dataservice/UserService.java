@@ -9,6 +9,7 @@ package com.synopsys.integration.blackduck.service.dataservice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
 import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
@@ -73,7 +74,9 @@ public class UserService extends DataService {
                                                               .addBlackDuckQuery(usernameQuery);
 
         BlackDuckMultipleRequest<UserView> requestMultiple = blackDuckRequestBuilder.buildBlackDuckRequest(usersResponse);
-        List<UserView> foundUsers = blackDuckApiClient.getSomeResponses(requestMultiple, 1);
+        // the query also matches usernames that only contain the one we want
+        Predicate<UserView> predicate = userView -> UserGroupService.MATCHING_USERNAME.test(username, userView);
+        List<UserView> foundUsers = blackDuckApiClient.getSomeMatchingResponses(requestMultiple, predicate, 1);
         return foundUsers.stream().findFirst();
     }
 
@@ -56,6 +56,14 @@ public class BlackDuckRequest<T extends BlackDuckResponse, U extends UrlResponse
         return blackDuckRequestBuilder.build();
     }
 
+    /**
+     * Whether the limit was left to the defaults rather than chosen by the
+     * caller - see BlackDuckRequestBuilder.setDefaultLimit.
+     */
+    public boolean isDefaultLimit() {
+        return blackDuckRequestBuilder.isDefaultLimit();
+    }
+
     public U getUrlResponse() {
         return urlResponse;
     }
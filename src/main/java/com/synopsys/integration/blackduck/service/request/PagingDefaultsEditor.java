@@ -21,7 +21,7 @@ public class PagingDefaultsEditor implements BlackDuckRequestBuilderEditor {
     @Override
     public void edit(BlackDuckRequestBuilder blackDuckRequestBuilder) {
         Function<String, Boolean> contains = blackDuckRequestBuilder.getQueryParameters()::containsKey;
-        conditionallySet(contains, BlackDuckRequestBuilder.LIMIT_PARAMETER, blackDuckRequestBuilder::setLimit, BlackDuckRequestBuilder.DEFAULT_LIMIT);
+        conditionallySet(contains, BlackDuckRequestBuilder.LIMIT_PARAMETER, blackDuckRequestBuilder::setDefaultLimit, BlackDuckRequestBuilder.DEFAULT_LIMIT);
         conditionallySet(contains, BlackDuckRequestBuilder.OFFSET_PARAMETER, blackDuckRequestBuilder::setOffset, BlackDuckRequestBuilder.DEFAULT_OFFSET);
     }
 
@@ -35,7 +35,8 @@ public class CodeLocationsRetrieverTest {
         BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
         UrlMultipleResponses<CodeLocationView> expectedArg = new UrlMultipleResponses<>(url, CodeLocationView.class);
         try {
-            Mockito.when(blackDuckApiClient.getAllResponses(Mockito.eq(expectedArg))).thenReturn(listWithDuplicates());
+            // the retriever reads through distinct paging now, but duplicates are still returned to prove its own merge keeps one of each
+            Mockito.when(blackDuckApiClient.getAllDistinctResponses(Mockito.eq(expectedArg))).thenReturn(listWithDuplicates());
         } catch (IntegrationException e) {
             fail("No exception is expected when mocking.", e);
         }
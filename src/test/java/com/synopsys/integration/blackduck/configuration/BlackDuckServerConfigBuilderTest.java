@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -17,6 +18,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.synopsys.integration.blackduck.TimingExtension;
+import com.synopsys.integration.blackduck.http.client.BlackDuckConnectionPool;
+import com.synopsys.integration.blackduck.http.client.ConnectionPoolSettings;
+import com.synopsys.integration.log.BufferedIntLogger;
 import com.synopsys.integration.rest.credentials.Credentials;
 import com.synopsys.integration.rest.credentials.CredentialsBuilder;
 import com.synopsys.integration.util.NoThreadExecutorService;
@@ -148,4 +152,45 @@ public class BlackDuckServerConfigBuilderTest {
         }
     }
 
+    @Test
+    public void testConnectionPoolOnlyWhenConfigured() {
+        BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = new BlackDuckServerConfigBuilder();
+        blackDuckServerConfigBuilder.setUrl("http://this.might.exist/somewhere");
+        blackDuckServerConfigBuilder.setApiToken("a valid, non-empty api token");
+        assertFalse(blackDuckServerConfigBuilder.build().getConnectionPoolSettings().isPresent());
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("BLACKDUCK_MAX_CONNECTIONS", "40");
+        blackDuckServerConfigBuilder.setProperties(properties.entrySet());
+        ConnectionPoolSettings connectionPoolSettings = blackDuckServerConfigBuilder.build().getConnectionPoolSettings().orElse(null);
+        assertNotNull(connectionPoolSettings);
+        assertEquals(40, connectionPoolSettings.getMaxTotal());
+        assertEquals(40, connectionPoolSettings.getMaxPerRoute());
+        assertEquals(ConnectionPoolSettings.DEFAULT_IDLE_TIMEOUT, connectionPoolSettings.getIdleTimeout());
+
+        blackDuckServerConfigBuilder.setMaxConnectionsPerRoute(41);
+        assertFalse(blackDuckServerConfigBuilder.isValid());
+    }
+
+    @Test
+    public void testConnectionPoolCreatedWithTheFirstClientAndShutDownWithTheConfig() {
+        BlackDuckServerConfigBuilder blackDuckServerConfigBuilder = new BlackDuckServerConfigBuilder();
+        blackDuckServerConfigBuilder.setUrl("http://this.might.exist/somewhere");
+        blackDuckServerConfigBuilder.setApiToken("a valid, non-empty api token");
+        Map<String, String> properties = new HashMap<>();
+        properties.put("BLACKDUCK_MAX_CONNECTIONS", "40");
+        blackDuckServerConfigBuilder.setProperties(properties.entrySet());
+        BlackDuckServerConfig blackDuckServerConfig = blackDuckServerConfigBuilder.build();
+        assertFalse(blackDuckServerConfig.getConnectionPool().isPresent());
+
+        blackDuckServerConfig.createApiTokenBlackDuckHttpClient(new BufferedIntLogger());
+        BlackDuckConnectionPool connectionPool = blackDuckServerConfig.getConnectionPool().orElse(null);
+        assertNotNull(connectionPool);
+        blackDuckServerConfig.createApiTokenBlackDuckHttpClient(new BufferedIntLogger());
+        assertSame(connectionPool, blackDuckServerConfig.getConnectionPool().orElse(null));
+
+        blackDuckServerConfig.shutdown();
+        assertFalse(blackDuckServerConfig.getConnectionPool().isPresent());
+    }
+
 }
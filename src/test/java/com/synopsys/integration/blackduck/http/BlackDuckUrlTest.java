@@ -36,6 +36,21 @@ public class BlackDuckUrlTest {
         assertEquals("cf1fd627-04db-4754-be67-dc0127c772d2", blackDuckUrl.parseId(Arrays.asList(BlackDuckUrlSearchTerm.COMPONENTS, BlackDuckUrlSearchTerm.VERSIONS)));
     }
 
+    @Test
+    public void testParsingTemplates() throws IntegrationException {
+        HttpUrl matchedFiles = new HttpUrl("https://blackduckserver/api/"
+                                               + "projects/687f92c5-a90f-4d16-9f30-573ac27b8eae/"
+                                               + "versions/c58fb845-f47b-487e-b15e-86b8762ec2db/"
+                                               + "components/07731f32-a0f0-4485-8d90-1f0bbdc8185d/"
+                                               + "versions/cf1fd627-04db-4754-be67-dc0127c772d2/"
+                                               + "matched-files?offset=100&limit=100");
+        assertEquals("/api/projects/{id}/versions/{id}/components/{id}/versions/{id}/matched-files", new BlackDuckUrl(matchedFiles).parseTemplate());
+
+        assertEquals("/api/notifications/{id}", new BlackDuckUrl(new HttpUrl("https://blackduckserver/api/notifications/12345")).parseTemplate());
+        assertEquals("/api/projects", new BlackDuckUrl(new HttpUrl("https://blackduckserver/api/projects?q=name:test")).parseTemplate());
+        assertEquals("/api/current-version", new BlackDuckUrl(new HttpUrl("https://blackduckserver/api/current-version")).parseTemplate());
+    }
+
     @Test
     public void testParsingBomComponentVersionIds() throws IntegrationException {
         HttpUrl bomComponentVersionMatchedFiles = new HttpUrl("https://blackduckserver/api/"
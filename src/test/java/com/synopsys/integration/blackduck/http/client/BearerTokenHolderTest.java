@@ -0,0 +1,108 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+public class BearerTokenHolderTest {
+    private static final int THREAD_COUNT = 8;
+
+    @Test
+    public void testOnlyOneThreadAuthenticates() throws Exception {
+        AtomicInteger authentications = new AtomicInteger(0);
+        CountDownLatch allWaiting = new CountDownLatch(THREAD_COUNT);
+        BearerTokenHolder bearerTokenHolder = new BearerTokenHolder(Runnable::run);
+        BearerTokenHolder.TokenSource tokenSource = () -> {
+            authentications.incrementAndGet();
+            try {
+                allWaiting.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IntegrationException(e);
+            }
+            return Optional.of(new BearerToken("shared", Duration.ofHours(2)));
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Optional<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executorService.submit(() -> {
+                    allWaiting.countDown();
+                    return bearerTokenHolder.getAuthorizationHeaderValue(tokenSource);
+                }));
+            }
+            for (Future<Optional<String>> future : futures) {
+                assertEquals("Bearer shared", future.get(30, TimeUnit.SECONDS).orElse(null));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, authentications.get());
+    }
+
+    @Test
+    public void testTokenIsRenewedBeforeItExpires() throws IntegrationException {
+        AtomicLong now = new AtomicLong(0);
+        AtomicInteger authentications = new AtomicInteger(0);
+        List<Runnable> backgroundRefreshes = new ArrayList<>();
+        BearerTokenHolder bearerTokenHolder = new BearerTokenHolder(backgroundRefreshes::add, 0.8, now::get);
+        BearerTokenHolder.TokenSource tokenSource = () -> Optional.of(new BearerToken("token" + authentications.incrementAndGet(), Duration.ofSeconds(100)));
+
+        assertEquals("Bearer token1", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+
+        now.set(TimeUnit.SECONDS.toNanos(80));
+        // the renewal is started, but the current token is still used meanwhile
+        assertEquals("Bearer token1", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+        assertEquals("Bearer token1", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+        assertEquals(1, backgroundRefreshes.size());
+
+        backgroundRefreshes.get(0).run();
+        assertEquals("Bearer token2", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+        assertEquals(2, authentications.get());
+    }
+
+    @Test
+    public void testOnlyTheRejectedTokenIsInvalidated() throws IntegrationException {
+        AtomicInteger authentications = new AtomicInteger(0);
+        BearerTokenHolder bearerTokenHolder = new BearerTokenHolder(Runnable::run);
+        BearerTokenHolder.TokenSource tokenSource = () -> Optional.of(new BearerToken("token" + authentications.incrementAndGet(), null));
+
+        bearerTokenHolder.getAuthorizationHeaderValue(tokenSource);
+        bearerTokenHolder.invalidate("Bearer some-older-token");
+        assertEquals("Bearer token1", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+
+        bearerTokenHolder.invalidate("Bearer token1");
+        assertFalse(bearerTokenHolder.hasToken());
+        assertEquals("Bearer token2", bearerTokenHolder.getAuthorizationHeaderValue(tokenSource).orElse(null));
+    }
+
+    @Test
+    public void testAuthenticationFailuresAreThrown() {
+        IntegrationException failure = new IntegrationException("Unauthorized");
+        BearerTokenHolder bearerTokenHolder = new BearerTokenHolder(Runnable::run);
+
+        assertSame(failure, assertThrows(IntegrationException.class, () -> bearerTokenHolder.getAuthorizationHeaderValue(() -> {
+            throw failure;
+        })));
+        assertFalse(bearerTokenHolder.hasToken());
+    }
+
+}
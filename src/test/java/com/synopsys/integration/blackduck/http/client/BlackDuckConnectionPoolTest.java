@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class BlackDuckConnectionPoolTest {
+    @Test
+    public void testInvalidSettingsAreRejected() {
+        Duration minute = Duration.ofMinutes(1);
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(0, 1, minute, minute));
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(5, 10, minute, minute));
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(5, 5, Duration.ZERO, minute));
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(5, 5, minute, null));
+    }
+
+    @Test
+    public void testStatsOfANewPool() {
+        BlackDuckConnectionPool connectionPool = new BlackDuckConnectionPool(new ConnectionPoolSettings(8, 4, Duration.ofMinutes(1), Duration.ofSeconds(30)), false);
+        try {
+            PoolStats poolStats = connectionPool.getTotalStats();
+            assertEquals(0, poolStats.getLeased());
+            assertEquals(0, poolStats.getAvailable());
+            assertEquals(0, poolStats.getPending());
+            assertEquals(8, poolStats.getMax());
+        } finally {
+            connectionPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBothSchemesAreRegistered() {
+        for (boolean alwaysTrustServerCertificate : new boolean[] { true, false }) {
+            Registry<ConnectionSocketFactory> socketFactoryRegistry = BlackDuckConnectionPool.createSocketFactoryRegistry(alwaysTrustServerCertificate);
+            assertNotNull(socketFactoryRegistry.lookup("http"));
+            assertNotNull(socketFactoryRegistry.lookup("https"));
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvictedAtMostOncePerHalfTimeout() {
+        AtomicLong now = new AtomicLong(0);
+        ConnectionPoolSettings connectionPoolSettings = new ConnectionPoolSettings(8, 4, Duration.ofMinutes(1), Duration.ofSeconds(30));
+        BlackDuckConnectionPool connectionPool = Mockito.spy(new BlackDuckConnectionPool(connectionPoolSettings, createRegistry(), now::get));
+        try {
+            connectionPool.evictIdleConnectionsIfDue();
+            Mockito.verify(connectionPool, Mockito.never()).evictIdleConnections();
+
+            now.addAndGet(TimeUnit.SECONDS.toNanos(15));
+            connectionPool.evictIdleConnectionsIfDue();
+            connectionPool.evictIdleConnectionsIfDue();
+            Mockito.verify(connectionPool, Mockito.times(1)).evictIdleConnections();
+
+            now.addAndGet(TimeUnit.SECONDS.toNanos(15));
+            connectionPool.evictIdleConnectionsIfDue();
+            Mockito.verify(connectionPool, Mockito.times(2)).evictIdleConnections();
+        } finally {
+            connectionPool.shutdown();
+        }
+    }
+
+    private Registry<ConnectionSocketFactory> createRegistry() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .build();
+    }
+
+}
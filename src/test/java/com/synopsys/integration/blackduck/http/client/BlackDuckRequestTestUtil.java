@@ -0,0 +1,29 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class BlackDuckRequestTestUtil {
+    public static final String PROJECTS_URL = "https://blackduckserver.com/api/projects";
+
+    public static BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> createProjectRequest() throws IntegrationException {
+        return createProjectRequest(1);
+    }
+
+    public static BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> createProjectRequest(int id) throws IntegrationException {
+        return createProjectRequest(new BlackDuckRequestBuilder().commonGet(), id);
+    }
+
+    public static BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> createProjectRequest(BlackDuckRequestBuilder blackDuckRequestBuilder) throws IntegrationException {
+        return createProjectRequest(blackDuckRequestBuilder, 1);
+    }
+
+    public static BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> createProjectRequest(BlackDuckRequestBuilder blackDuckRequestBuilder, int id) throws IntegrationException {
+        return BlackDuckRequest.createSingleRequest(blackDuckRequestBuilder, new HttpUrl(PROJECTS_URL + "/" + id), ProjectView.class);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.response.Response;
+
+public class CoalescingHttpClientTest {
+    private static final String PROJECT_JSON = "{\"name\":\"coalesced project\"}";
+    private static final int THREAD_COUNT = 8;
+
+    @Test
+    public void testConcurrentIdenticalGetsShareOneCall() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            callStarted.countDown();
+            releaseCall.await(30, TimeUnit.SECONDS);
+            return mockResponse(200, PROJECT_JSON);
+        });
+
+        CoalescingHttpClient coalescingHttpClient = new CoalescingHttpClient(blackDuckHttpClient);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            futures.add(executorService.submit(() -> coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)).getContentString()));
+            callStarted.await(30, TimeUnit.SECONDS);
+
+            List<Thread> followers = new CopyOnWriteArrayList<>();
+            for (int i = 1; i < THREAD_COUNT; i++) {
+                futures.add(executorService.submit(() -> {
+                    followers.add(Thread.currentThread());
+                    return coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)).getContentString();
+                }));
+            }
+
+            // only complete the call once every follower is parked waiting on it
+            while (followers.size() < THREAD_COUNT - 1 || followers.stream().anyMatch(thread -> Thread.State.WAITING != thread.getState())) {
+                Thread.sleep(5);
+            }
+            releaseCall.countDown();
+            for (Future<String> future : futures) {
+                assertEquals(PROJECT_JSON, future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+        assertEquals(1, coalescingHttpClient.getExecutedCount());
+        assertEquals(THREAD_COUNT - 1, coalescingHttpClient.getCoalescedCount());
+        assertEquals(0, coalescingHttpClient.getInFlightCount());
+    }
+
+    @Test
+    public void testResponsesThatFailToBufferAreClosed() throws Exception {
+        Response unreadable = mockResponse(200, null);
+        Mockito.when(unreadable.getContentString()).thenThrow(new IntegrationException("connection reset"));
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            callStarted.countDown();
+            releaseCall.await(30, TimeUnit.SECONDS);
+            return unreadable;
+        }).thenAnswer(invocation -> mockResponse(200, PROJECT_JSON));
+
+        CoalescingHttpClient coalescingHttpClient = new CoalescingHttpClient(blackDuckHttpClient);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> leader = executorService.submit(() -> coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)));
+            callStarted.await(30, TimeUnit.SECONDS);
+            List<Thread> followers = new CopyOnWriteArrayList<>();
+            Future<String> follower = executorService.submit(() -> {
+                followers.add(Thread.currentThread());
+                return coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)).getContentString();
+            });
+            while (followers.isEmpty() || Thread.State.WAITING != followers.get(0).getState()) {
+                Thread.sleep(5);
+            }
+            releaseCall.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(30, TimeUnit.SECONDS));
+            assertTrue(leaderFailure.getCause() instanceof IntegrationException);
+            // the follower makes its own call instead of sharing a failed one
+            assertEquals(PROJECT_JSON, follower.get(30, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Mockito.verify(unreadable).close();
+        assertEquals(0, coalescingHttpClient.getInFlightCount());
+    }
+
+    @Test
+    public void testSequentialAndDistinctGetsAreNotCoalesced() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> mockResponse(200, PROJECT_JSON));
+
+        CoalescingHttpClient coalescingHttpClient = new CoalescingHttpClient(blackDuckHttpClient);
+        coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1));
+        coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1));
+        coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(2));
+
+        assertEquals(3, coalescingHttpClient.getExecutedCount());
+        assertEquals(0, coalescingHttpClient.getCoalescedCount());
+    }
+
+    @Test
+    public void testResponsesWithoutWaitersAreStreamed() throws IntegrationException {
+        Response response = mockResponse(200, PROJECT_JSON);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(response);
+
+        CoalescingHttpClient coalescingHttpClient = new CoalescingHttpClient(blackDuckHttpClient);
+        assertEquals(response, coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)));
+        Mockito.verify(response, Mockito.never()).getContentString();
+        assertEquals(0, coalescingHttpClient.getInFlightCount());
+    }
+
+    @Test
+    public void testErrorResponsesAreReturnedUnbuffered() throws IntegrationException {
+        Response error = mockResponse(404, "{\"errorMessage\":\"not found\"}");
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(error);
+
+        CoalescingHttpClient coalescingHttpClient = new CoalescingHttpClient(blackDuckHttpClient);
+        assertEquals(error, coalescingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(1)));
+        Mockito.verify(error, Mockito.never()).getContentString();
+    }
+
+    private Response mockResponse(int statusCode, String content) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(statusCode >= 200 && statusCode < 300);
+        Mockito.when(response.isStatusCodeError()).thenReturn(statusCode >= 400);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        return response;
+    }
+
+}
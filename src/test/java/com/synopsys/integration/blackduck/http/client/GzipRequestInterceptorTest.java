@@ -0,0 +1,65 @@
+package com.synopsys.integration.blackduck.http.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+
+public class GzipRequestInterceptorTest {
+    private static final String BDIO = StringUtils.repeat("{\"@id\":\"http:maven/com.synopsys/blackduck-common\",\"@type\":\"Component\"},", 200);
+
+    @Test
+    public void testRequestedBodiesAreCompressed() throws IOException {
+        BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "https://blackduckserver.com/api/scan/data");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setEntity(new StringEntity(BDIO, ContentType.APPLICATION_JSON));
+
+        new GzipRequestInterceptor().process(request, new BasicHttpContext());
+
+        HttpEntity entity = request.getEntity();
+        assertEquals("gzip", entity.getContentEncoding().getValue());
+        byte[] compressed = writeEntity(entity);
+        assertTrue(compressed.length < BDIO.length() / 10);
+        try (InputStream decompressed = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(BDIO, IOUtils.toString(decompressed, StandardCharsets.UTF_8));
+        }
+
+        // compressing twice would corrupt the body
+        new GzipRequestInterceptor().process(request, new BasicHttpContext());
+        assertSame(entity, request.getEntity());
+    }
+
+    @Test
+    public void testOtherBodiesAreUntouched() {
+        BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "https://blackduckserver.com/api/scan/data");
+        StringEntity entity = new StringEntity(BDIO, ContentType.APPLICATION_JSON);
+        request.setEntity(entity);
+
+        new GzipRequestInterceptor().process(request, new BasicHttpContext());
+
+        assertSame(entity, request.getEntity());
+    }
+
+    private byte[] writeEntity(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.manual.response.BlackDuckResponseResponse;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BlackDuckRequestTestUtil;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+public class CachingHttpClientTest {
+    private static final String PROJECT_JSON = "{\"name\":\"cached project\"}";
+
+    @Test
+    public void testNotModifiedServesCachedContent() throws IntegrationException {
+        Response original = mockResponse(200, PROJECT_JSON);
+        Mockito.when(original.getHeaderValue(HttpHeaders.ETAG)).thenReturn("\"v1\"");
+        Mockito.when(original.getHeaderValue(HttpHeaders.LAST_MODIFIED)).thenReturn("Mon, 18 Oct 2021 10:00:00 GMT");
+        Response notModified = mockResponse(304, null);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(original, notModified);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> blackDuckRequest = BlackDuckRequestTestUtil.createProjectRequest();
+
+        assertEquals(PROJECT_JSON, cachingHttpClient.execute(blackDuckRequest).getContentString());
+        cachingHttpClient.expireCache();
+        assertEquals(PROJECT_JSON, cachingHttpClient.execute(blackDuckRequest).getContentString());
+        assertEquals(1, cachingHttpClient.getCache().getRevalidationCount());
+
+        ArgumentCaptor<BlackDuckRequest> requestCaptor = ArgumentCaptor.forClass(BlackDuckRequest.class);
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(requestCaptor.capture());
+        List<BlackDuckRequest> sentRequests = requestCaptor.getAllValues();
+        assertFalse(sentRequests.get(0).getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"v1\"", sentRequests.get(1).getRequest().getHeaders().get(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("Mon, 18 Oct 2021 10:00:00 GMT", sentRequests.get(1).getRequest().getHeaders().get(HttpHeaders.IF_MODIFIED_SINCE));
+
+        // the entry is fresh again, so no third request is made
+        assertEquals(PROJECT_JSON, cachingHttpClient.execute(blackDuckRequest).getContentString());
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testModifiedContentReplacesCachedContent() throws IntegrationException {
+        Response original = mockResponse(200, PROJECT_JSON);
+        Mockito.when(original.getHeaderValue(HttpHeaders.ETAG)).thenReturn("\"v1\"");
+        String updatedJson = "{\"name\":\"updated project\"}";
+        Response updated = mockResponse(200, updatedJson);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(original, updated);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> blackDuckRequest = BlackDuckRequestTestUtil.createProjectRequest();
+
+        cachingHttpClient.execute(blackDuckRequest).getContentString();
+        cachingHttpClient.expireCache();
+        assertEquals(updatedJson, cachingHttpClient.execute(blackDuckRequest).getContentString());
+        assertEquals(updatedJson, cachingHttpClient.execute(blackDuckRequest).getContentString());
+        assertEquals(0, cachingHttpClient.getCache().getRevalidationCount());
+    }
+
+    @Test
+    public void testErrorResponsesAreNotCached() throws IntegrationException {
+        Response error = mockResponse(500, "{\"errorMessage\":\"oops\"}");
+        Response success = mockResponse(200, PROJECT_JSON);
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(error, success);
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> blackDuckRequest = BlackDuckRequestTestUtil.createProjectRequest();
+
+        cachingHttpClient.execute(blackDuckRequest).getContentString();
+        assertEquals(PROJECT_JSON, cachingHttpClient.execute(blackDuckRequest).getContentString());
+    }
+
+    @Test
+    public void testChangesInvalidateAffectedEntries() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> mockResponse(200, PROJECT_JSON));
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient);
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> project = BlackDuckRequestTestUtil.createProjectRequest();
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> otherProject = BlackDuckRequestTestUtil.createProjectRequest(2);
+        cachingHttpClient.execute(project).getContentString();
+        cachingHttpClient.execute(otherProject).getContentString();
+        assertEquals(2, cachingHttpClient.getCache().size());
+
+        BlackDuckRequestBuilder deleteBuilder = new BlackDuckRequestBuilder().method(HttpMethod.DELETE);
+        cachingHttpClient.execute(new BlackDuckRequest<>(deleteBuilder, new UrlSingleResponse<>(new HttpUrl(BlackDuckRequestTestUtil.PROJECTS_URL + "/1"), BlackDuckResponseResponse.class)));
+
+        assertEquals(1, cachingHttpClient.getCache().size());
+        cachingHttpClient.execute(otherProject).getContentString();
+        Mockito.verify(blackDuckHttpClient, Mockito.times(3)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testNotFoundIsRememberedUntilAFreshAnswerIsRequired() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(NotFoundCacheTest.mockNotFound(), mockResponse(200, PROJECT_JSON));
+        Mockito.doAnswer(invocation -> {
+            invocation.<Response>getArgument(0).throwExceptionForError();
+            return null;
+        }).when(blackDuckHttpClient).throwExceptionForError(Mockito.any());
+
+        CachingHttpClient cachingHttpClient = new CachingHttpClient(blackDuckHttpClient, new ResponseCache(), NotFoundCache.forPaths(Duration.ofMinutes(1), "/api/projects"));
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> blackDuckRequest = BlackDuckRequestTestUtil.createProjectRequest();
+
+        Response first = cachingHttpClient.execute(blackDuckRequest);
+        Response second = cachingHttpClient.execute(blackDuckRequest);
+        assertSame(first, second);
+        IntegrationException firstException = assertThrows(IntegrationException.class, () -> cachingHttpClient.throwExceptionForError(first));
+        IntegrationException secondException = assertThrows(IntegrationException.class, () -> cachingHttpClient.throwExceptionForError(second));
+        // the response is shared, but each caller gets its own exception
+        assertNotSame(firstException, secondException);
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+
+        BlackDuckRequestBuilder freshRequestBuilder = new BlackDuckRequestBuilder().commonGet().noCache();
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> freshRequest = new BlackDuckRequest<>(freshRequestBuilder, blackDuckRequest.getUrlResponse());
+        assertEquals(PROJECT_JSON, cachingHttpClient.execute(freshRequest).getContentString());
+        assertEquals(0, cachingHttpClient.getNotFoundCache().size());
+    }
+
+    private Response mockResponse(int statusCode, String content) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(statusCode >= 200 && statusCode < 300);
+        Mockito.when(response.isStatusCodeError()).thenReturn(statusCode >= 400);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        return response;
+    }
+
+}
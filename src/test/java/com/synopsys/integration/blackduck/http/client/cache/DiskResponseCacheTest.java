@@ -0,0 +1,220 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.manual.response.BlackDuckResponseResponse;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpMethod;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class DiskResponseCacheTest {
+    private File cacheDirectory;
+
+    @BeforeEach
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("response-cache").toFile();
+    }
+
+    @AfterEach
+    public void deleteCacheDirectory() {
+        FileUtils.deleteQuietly(cacheDirectory);
+    }
+
+    @Test
+    public void testEntriesAreSharedBetweenInstances() throws IntegrationException {
+        Request request = createRequest("https://blackduckserver.com/api/components/1");
+        DiskResponseCache writer = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        writer.write(request, mockResponse("{\"name\":\"component\"}", "\"abc\""));
+
+        // a second instance stands in for another process on the same agent
+        DiskResponseCache reader = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        Optional<DiskResponseCache.DiskCacheEntry> entry = reader.read(request);
+        assertTrue(entry.isPresent());
+        assertEquals("{\"name\":\"component\"}", entry.get().getContent());
+        assertEquals("\"abc\"", entry.get().getETag().orElse(null));
+        assertEquals("application/json", entry.get().getContentType());
+        assertFalse(reader.isExpired(entry.get()));
+
+        assertFalse(reader.read(createRequest("https://blackduckserver.com/api/components/2")).isPresent());
+    }
+
+    @Test
+    public void testQueryParameterOrderDoesNotMatter() throws IntegrationException {
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        Request first = new Request.Builder()
+                            .url(new HttpUrl("https://blackduckserver.com/api/projects"))
+                            .addQueryParameter("limit", "100")
+                            .addQueryParameter("offset", "0")
+                            .build();
+        Request second = new Request.Builder()
+                             .url(new HttpUrl("https://blackduckserver.com/api/projects"))
+                             .addQueryParameter("offset", "0")
+                             .addQueryParameter("limit", "100")
+                             .build();
+
+        assertEquals(cache.createKey(first), cache.createKey(second));
+    }
+
+    @Test
+    public void testExpirationAndPurge() throws IntegrationException {
+        AtomicLong now = new AtomicLong(1_000_000);
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger(), now::get);
+        Request revalidatable = createRequest("https://blackduckserver.com/api/licenses/1");
+        Request disposable = createRequest("https://blackduckserver.com/api/licenses/2");
+        cache.write(revalidatable, mockResponse("{}", "\"v1\""));
+        cache.write(disposable, mockResponse("{}", null));
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        assertTrue(cache.isExpired(cache.read(revalidatable).get()));
+        assertEquals(1, cache.purgeExpired());
+        assertTrue(cache.read(revalidatable).isPresent());
+        assertFalse(cache.read(disposable).isPresent());
+
+        DiskResponseCache.DiskCacheEntry refreshed = cache.refresh(revalidatable, cache.read(revalidatable).get());
+        assertFalse(cache.isExpired(refreshed));
+        assertFalse(cache.isExpired(cache.read(revalidatable).get()));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverExposePartialEntries() throws Exception {
+        Request request = createRequest("https://blackduckserver.com/api/policy-rules");
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            contents.add(StringUtils.repeat(Integer.toString(i), 100_000));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 16; thread++) {
+                String content = contents.get(thread % contents.size());
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        cache.write(request, mockResponse(content, null));
+                        cache.read(request).ifPresent(entry -> assertTrue(contents.contains(entry.getContent())));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertTrue(contents.contains(cache.read(request).get().getContent()));
+    }
+
+    @Test
+    public void testChangesInvalidateEntriesForEveryProcess() throws Exception {
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        Request project = createRequest("https://blackduckserver.com/api/projects/1");
+        Request versions = createRequest("https://blackduckserver.com/api/projects/1/versions");
+        Request projects = new Request.Builder()
+                               .url(new HttpUrl("https://blackduckserver.com/api/projects"))
+                               .addQueryParameter("limit", "100")
+                               .build();
+        Request otherProject = createRequest("https://blackduckserver.com/api/projects/10");
+        for (Request request : new Request[] { project, versions, projects, otherProject }) {
+            cache.write(request, mockResponse("{}", null));
+        }
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        DiskCachingHttpClient diskCachingHttpClient = new DiskCachingHttpClient(blackDuckHttpClient, cache);
+        BlackDuckRequestBuilder putBuilder = new BlackDuckRequestBuilder().method(HttpMethod.PUT);
+        diskCachingHttpClient.execute(new BlackDuckRequest<>(putBuilder, new UrlSingleResponse<>(new HttpUrl("https://blackduckserver.com/api/projects/1"), BlackDuckResponseResponse.class)));
+
+        // another process reading the same directory sees the change too
+        DiskResponseCache reader = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        assertFalse(reader.read(project).isPresent());
+        assertFalse(reader.read(versions).isPresent());
+        assertFalse(reader.read(projects).isPresent());
+        assertTrue(reader.read(otherProject).isPresent());
+    }
+
+    @Test
+    public void testNoCacheSkipsTheDiskButStoresTheAnswer() throws Exception {
+        BlackDuckRequestBuilder freshRequestBuilder = new BlackDuckRequestBuilder().get().noCache();
+        BlackDuckRequest<BlackDuckResponseResponse, UrlSingleResponse<BlackDuckResponseResponse>> freshRequest = new BlackDuckRequest<>(freshRequestBuilder,
+            new UrlSingleResponse<>(new HttpUrl("https://blackduckserver.com/api/projects/1"), BlackDuckResponseResponse.class));
+        Request project = freshRequest.getRequest();
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        cache.write(project, mockResponse("{\"name\":\"stale\"}", null));
+
+        Response fresh = mockResponse("{\"name\":\"fresh\"}", null);
+        Mockito.when(fresh.isStatusCodeSuccess()).thenReturn(true);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(fresh);
+        DiskCachingHttpClient diskCachingHttpClient = new DiskCachingHttpClient(blackDuckHttpClient, cache);
+
+        assertEquals("{\"name\":\"fresh\"}", diskCachingHttpClient.execute(freshRequest).getContentString());
+        Mockito.verify(blackDuckHttpClient).execute(Mockito.any());
+        assertEquals("{\"name\":\"fresh\"}", cache.read(project).map(DiskResponseCache.DiskCacheEntry::getContent).orElse(null));
+    }
+
+    @Test
+    public void testCachedResponsesKeepTheResponseContract() throws Exception {
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, Duration.ofMinutes(5), new BufferedIntLogger());
+        Request request = new Request.Builder()
+                              .url(new HttpUrl("https://blackduckserver.com/api/projects"))
+                              .addQueryParameter("limit", "100")
+                              .build();
+        cache.write(request, mockResponse("{\"totalCount\":0}", "\"abc\""));
+
+        DiskCachedResponse response = new DiskCachedResponse(request, cache.read(request).get());
+        assertEquals("GET", response.getRequest().getMethod());
+        assertEquals("https://blackduckserver.com/api/projects?limit=100", response.getRequest().getURI().toString());
+        assertEquals(200, response.getActualResponse().getStatusLine().getStatusCode());
+        assertEquals("\"abc\"", response.getActualResponse().getFirstHeader(HttpHeaders.ETAG).getValue());
+        assertEquals("{\"totalCount\":0}", IOUtils.toString(response.getActualResponse().getEntity().getContent(), StandardCharsets.UTF_8));
+    }
+
+    private Request createRequest(String url) throws IntegrationException {
+        return new Request.Builder()
+                   .url(new HttpUrl(url))
+                   .build();
+    }
+
+    private Response mockResponse(String content, String eTag) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        Mockito.when(response.getContentType()).thenReturn("application/json");
+        Mockito.when(response.getHeaderValue(HttpHeaders.ETAG)).thenReturn(eTag);
+        return response;
+    }
+
+}
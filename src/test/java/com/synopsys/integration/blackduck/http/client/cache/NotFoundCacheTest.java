@@ -0,0 +1,97 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.exception.IntegrationRestException;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class NotFoundCacheTest {
+    @Test
+    public void testOnlyConfiguredEndpointsAreRemembered() throws IntegrationException {
+        Map<String, Duration> timeToLiveByPath = new HashMap<>();
+        timeToLiveByPath.put("/api/developer-scans", Duration.ofSeconds(5));
+        timeToLiveByPath.put("/api/developer-scans/long-lived", Duration.ofSeconds(60));
+        AtomicLong now = new AtomicLong(0);
+        NotFoundCache notFoundCache = new NotFoundCache(timeToLiveByPath, NotFoundCache.DEFAULT_CAPACITY, now::get);
+
+        assertEquals(Duration.ofSeconds(5), notFoundCache.getTimeToLive(new HttpUrl("https://blackduckserver.com/api/developer-scans/1")).orElse(null));
+        assertEquals(Duration.ofSeconds(60), notFoundCache.getTimeToLive(new HttpUrl("https://blackduckserver.com/api/developer-scans/long-lived/1")).orElse(null));
+        assertFalse(notFoundCache.getTimeToLive(new HttpUrl("https://blackduckserver.com/api/developer-scans-other")).isPresent());
+        assertFalse(notFoundCache.getTimeToLive(new HttpUrl("https://blackduckserver.com/api/projects/1")).isPresent());
+
+        Request scan = createRequest("https://blackduckserver.com/api/developer-scans/1");
+        Request project = createRequest("https://blackduckserver.com/api/projects/1");
+        NotFoundResponse notFoundResponse = NotFoundResponse.buffer(mockNotFound());
+        notFoundCache.put(scan, notFoundResponse);
+        notFoundCache.put(project, notFoundResponse);
+
+        assertSame(notFoundResponse, notFoundCache.get(scan).orElse(null));
+        assertFalse(notFoundCache.get(project).isPresent());
+        assertEquals(1, notFoundCache.getHitCount());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertFalse(notFoundCache.get(scan).isPresent());
+        assertEquals(0, notFoundCache.size());
+    }
+
+    @Test
+    public void testChangesForgetMisses() throws IntegrationException {
+        NotFoundCache notFoundCache = NotFoundCache.forPaths(Duration.ofMinutes(1), "/api/projects");
+        Request project = createRequest("https://blackduckserver.com/api/projects/1");
+        notFoundCache.put(project, NotFoundResponse.buffer(mockNotFound()));
+
+        notFoundCache.invalidate(new HttpUrl("https://blackduckserver.com/api/projects"));
+        assertFalse(notFoundCache.get(project).isPresent());
+    }
+
+    @Test
+    public void testBufferedResponseThrowsANewExceptionEachTime() throws IntegrationException {
+        Response response = mockNotFound();
+        NotFoundResponse notFoundResponse = NotFoundResponse.buffer(response);
+        Mockito.verify(response).close();
+
+        IntegrationRestException first = assertThrows(IntegrationRestException.class, notFoundResponse::throwExceptionForError);
+        IntegrationRestException second = assertThrows(IntegrationRestException.class, notFoundResponse::throwExceptionForError);
+        assertNotSame(first, second);
+        assertEquals(404, second.getHttpStatusCode());
+        assertEquals("{\"errorMessage\":\"not found\"}", second.getHttpResponseContent());
+        assertEquals("{\"errorMessage\":\"not found\"}", notFoundResponse.getContentString());
+        assertTrue(notFoundResponse.isStatusCodeError());
+    }
+
+    static Response mockNotFound() throws IntegrationException {
+        IntegrationRestException restException = Mockito.mock(IntegrationRestException.class);
+        Mockito.when(restException.getHttpStatusCode()).thenReturn(404);
+        Mockito.when(restException.getHttpResponseContent()).thenReturn("{\"errorMessage\":\"not found\"}");
+
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(404);
+        Mockito.when(response.isStatusCodeError()).thenReturn(true);
+        Mockito.doThrow(restException).when(response).throwExceptionForError();
+        return response;
+    }
+
+    private Request createRequest(String url) throws IntegrationException {
+        return new Request.Builder()
+                   .url(new HttpUrl(url))
+                   .build();
+    }
+
+}
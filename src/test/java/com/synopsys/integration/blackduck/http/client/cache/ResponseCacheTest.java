@@ -0,0 +1,229 @@
+package com.synopsys.integration.blackduck.http.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class ResponseCacheTest {
+    private static final int THREAD_COUNT = 32;
+
+    @Test
+    public void testEntriesExpireAfterTimeToLive() throws IntegrationException {
+        AtomicLong now = new AtomicLong(0);
+        ResponseCache cache = new ResponseCache(10, Duration.ofSeconds(30), now::get);
+        Request request = createRequest(0);
+        Response response = Mockito.mock(Response.class);
+
+        cache.put(request, response);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertSame(response, cache.get(request).orElse(null));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertFalse(cache.get(request).isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPerEntryTimeToLiveOverridesDefault() throws IntegrationException {
+        AtomicLong now = new AtomicLong(0);
+        ResponseCache cache = new ResponseCache(10, ResponseCache.NO_EXPIRATION, now::get);
+        Request shortLived = createRequest(0);
+        Request longLived = createRequest(1);
+
+        cache.put(shortLived, Mockito.mock(Response.class), Duration.ofMillis(5));
+        cache.put(longLived, Mockito.mock(Response.class));
+        now.addAndGet(TimeUnit.DAYS.toNanos(365));
+
+        assertFalse(cache.get(shortLived).isPresent());
+        assertTrue(cache.get(longLived).isPresent());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IntegrationException {
+        AtomicLong now = new AtomicLong(0);
+        ResponseCache cache = new ResponseCache(16, ResponseCache.NO_EXPIRATION, now::incrementAndGet);
+        List<Request> requests = createRequests(17);
+        for (int i = 0; i < 16; i++) {
+            cache.put(requests.get(i), Mockito.mock(Response.class));
+        }
+
+        // touching the first two should leave the 3rd and 4th as the oldest
+        assertTrue(cache.get(requests.get(0)).isPresent());
+        assertTrue(cache.get(requests.get(1)).isPresent());
+        cache.put(requests.get(16), Mockito.mock(Response.class));
+
+        assertEquals(15, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertTrue(cache.get(requests.get(0)).isPresent());
+        assertTrue(cache.get(requests.get(1)).isPresent());
+        assertFalse(cache.get(requests.get(2)).isPresent());
+        assertFalse(cache.get(requests.get(3)).isPresent());
+        assertTrue(cache.get(requests.get(16)).isPresent());
+    }
+
+    @Test
+    public void testEvictionKeepsWeightWithinBudget() throws IntegrationException {
+        AtomicLong now = new AtomicLong(0);
+        long entryWeight = ResponseCache.ENTRY_OVERHEAD_BYTES + 40 + 2 * 1000;
+        ResponseCache cache = new ResponseCache(1000, 4 * entryWeight, ResponseCache.NO_EXPIRATION, now::incrementAndGet);
+        List<Request> requests = createRequests(5);
+        String content = StringUtils.repeat('x', 1000);
+
+        for (int i = 0; i < 4; i++) {
+            cacheContent(cache, requests.get(i), content);
+        }
+        assertEquals(4, cache.size());
+        assertEquals(4 * entryWeight, cache.getWeight());
+
+        cacheContent(cache, requests.get(4), content);
+        assertTrue(cache.getWeight() <= cache.getMaximumWeight() - cache.getMaximumWeight() / 16);
+        assertFalse(cache.get(requests.get(0)).isPresent());
+        assertFalse(cache.get(requests.get(1)).isPresent());
+        assertTrue(cache.get(requests.get(4)).isPresent());
+
+        cache.clear();
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testContentLargerThanBudgetIsNotCached() throws IntegrationException {
+        ResponseCache cache = new ResponseCache(1000, 10_000, ResponseCache.NO_EXPIRATION);
+        Request small = createRequest(0);
+        Request huge = createRequest(1);
+
+        cacheContent(cache, small, "{}");
+        cacheContent(cache, huge, StringUtils.repeat('x', 10_000));
+
+        assertTrue(cache.get(small).isPresent());
+        assertFalse(cache.get(huge).isPresent());
+        assertEquals(ResponseCache.ENTRY_OVERHEAD_BYTES + 40 + 4, cache.getWeight());
+    }
+
+    @Test
+    public void testInvalidateRemovesTheHrefItsChildrenAndItsCollections() throws IntegrationException {
+        ResponseCache cache = new ResponseCache();
+        Request project = createRequest("https://blackduckserver.com/api/projects/1");
+        Request versions = createRequest("https://blackduckserver.com/api/projects/1/versions");
+        Request firstPage = createRequest("https://blackduckserver.com/api/projects?limit=100&offset=0");
+        Request secondPage = new Request.Builder()
+                                 .url(new HttpUrl("https://blackduckserver.com/api/projects"))
+                                 .addQueryParameter("offset", "100")
+                                 .build();
+        Request otherProject = createRequest("https://blackduckserver.com/api/projects/10");
+        Request components = createRequest("https://blackduckserver.com/api/components");
+        for (Request request : new Request[] { project, versions, firstPage, secondPage, otherProject, components }) {
+            cache.put(request, Mockito.mock(Response.class));
+        }
+
+        assertEquals(4, cache.invalidate(new HttpUrl("https://blackduckserver.com/api/projects/1")));
+        assertFalse(cache.get(project).isPresent());
+        assertFalse(cache.get(versions).isPresent());
+        assertFalse(cache.get(firstPage).isPresent());
+        assertFalse(cache.get(secondPage).isPresent());
+        assertTrue(cache.get(otherProject).isPresent());
+        assertTrue(cache.get(components).isPresent());
+        assertEquals(2 * ResponseCache.ENTRY_OVERHEAD_BYTES, cache.getWeight());
+        assertEquals(1, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        int capacity = 64;
+        int operationsPerThread = 20000;
+        ResponseCache cache = new ResponseCache(capacity, Duration.ofMillis(50));
+        List<Request> requests = createRequests(256);
+        Response response = Mockito.mock(Response.class);
+
+        LongAdder gets = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        Request request = requests.get(random.nextInt(requests.size()));
+                        int operation = random.nextInt(10);
+                        if (operation < 7) {
+                            cache.get(request).ifPresent(cached -> assertSame(response, cached));
+                            gets.increment();
+                        } else if (operation < 9) {
+                            cache.put(request, response);
+                        } else {
+                            cache.remove(request);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                // any exception or assertion failure in a worker is rethrown here
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(gets.sum(), cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitCount() > 0);
+        assertTrue(cache.getEvictionCount() > 0);
+        // a put that lost the race for the eviction lock can leave the cache over its capacity,
+        // so once the writers have stopped, one more put must bring it back within it
+        cache.put(requests.get(0), response);
+        assertTrue(cache.size() <= capacity, "The cache grew to " + cache.size());
+        assertEquals(cache.size() * ResponseCache.ENTRY_OVERHEAD_BYTES, cache.getWeight());
+    }
+
+    private void cacheContent(ResponseCache cache, Request request, String content) throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(response.getContentString()).thenReturn(content);
+        // reading the content is what puts a CacheableResponse in the cache
+        new CacheableResponse(request, response, cache).getContentString();
+    }
+
+    private List<Request> createRequests(int count) throws IntegrationException {
+        List<Request> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(createRequest(i));
+        }
+        return requests;
+    }
+
+    private Request createRequest(int id) throws IntegrationException {
+        return createRequest("https://blackduckserver.com/api/projects/" + id);
+    }
+
+    private Request createRequest(String url) throws IntegrationException {
+        return new Request.Builder()
+                   .url(new HttpUrl(url))
+                   .build();
+    }
+
+}
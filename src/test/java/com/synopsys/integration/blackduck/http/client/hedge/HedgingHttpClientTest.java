@@ -0,0 +1,110 @@
+package com.synopsys.integration.blackduck.http.client.hedge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BlackDuckRequestTestUtil;
+import com.synopsys.integration.blackduck.http.client.retry.RetryBudget;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.response.Response;
+
+public class HedgingHttpClientTest {
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testSlowRequestIsHedgedAndTheLoserClosed() throws IntegrationException, IOException {
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        Response slow = Mockito.mock(Response.class);
+        Response fast = Mockito.mock(Response.class);
+        AtomicInteger calls = new AtomicInteger();
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            if (1 == calls.incrementAndGet()) {
+                releaseSlow.await(30, TimeUnit.SECONDS);
+                return slow;
+            }
+            return fast;
+        });
+
+        RetryBudget hedgeBudget = new RetryBudget(0, 1);
+        HedgingHttpClient hedgingHttpClient = new HedgingHttpClient(blackDuckHttpClient, executorService, createHedgeDelay(), hedgeBudget);
+
+        assertSame(fast, hedgingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().commonGet())));
+        assertEquals(1, hedgingHttpClient.getHedgedCount());
+        assertEquals(1, hedgingHttpClient.getHedgeWonCount());
+
+        releaseSlow.countDown();
+        Mockito.verify(slow, Mockito.timeout(5000)).close();
+        Mockito.verify(fast, Mockito.never()).close();
+    }
+
+    @Test
+    public void testNothingIsHedgedWithoutBudget() throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return response;
+        });
+
+        RetryBudget hedgeBudget = new RetryBudget(0, 0);
+        HedgingHttpClient hedgingHttpClient = new HedgingHttpClient(blackDuckHttpClient, executorService, createHedgeDelay(), hedgeBudget);
+
+        assertSame(response, hedgingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().commonGet())));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+        assertEquals(0, hedgingHttpClient.getHedgedCount());
+        assertEquals(1, hedgeBudget.getDeniedCount());
+    }
+
+    @Test
+    public void testPostsAreNotHedged() throws IntegrationException {
+        Response response = Mockito.mock(Response.class);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(response);
+
+        HedgingHttpClient hedgingHttpClient = new HedgingHttpClient(blackDuckHttpClient, executorService, createHedgeDelay(), new RetryBudget());
+
+        assertSame(response, hedgingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().post())));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testDelayFollowsTheEndpointPercentile() {
+        HedgeDelay hedgeDelay = new HedgeDelay(90, 10, 100, Duration.ofSeconds(1), Duration.ofMillis(5), Duration.ofSeconds(2));
+        assertEquals(Duration.ofSeconds(1), hedgeDelay.getDelay("/api/projects/{id}"));
+
+        for (int i = 1; i <= 10; i++) {
+            hedgeDelay.record("/api/projects/{id}", TimeUnit.MILLISECONDS.toNanos(10 * i));
+        }
+        Duration delay = hedgeDelay.getDelay("/api/projects/{id}");
+        assertTrue(delay.toMillis() >= 90 && delay.toMillis() <= 100, delay.toString());
+
+        hedgeDelay.record("/api/codelocations", TimeUnit.SECONDS.toNanos(60));
+        assertEquals(Duration.ofSeconds(1), hedgeDelay.getDelay("/api/codelocations"));
+    }
+
+    private HedgeDelay createHedgeDelay() {
+        return new HedgeDelay(HedgeDelay.DEFAULT_PERCENTILE, HedgeDelay.DEFAULT_MIN_SAMPLES, HedgeDelay.DEFAULT_WINDOW_SIZE, Duration.ofMillis(20), Duration.ZERO, Duration.ofSeconds(1));
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.synopsys.integration.blackduck.http.client.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+    @Test
+    public void testSuccessGrowsTheLimitByAboutOnePerWindow() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = createLimiter(new AtomicLong(0), 4);
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire().success();
+        }
+        assertEquals(4, limiter.getLimit());
+        limiter.acquire().success();
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testThrottledWindowCutsTheLimitOnce() throws InterruptedException {
+        AtomicLong now = new AtomicLong(0);
+        AdaptiveConcurrencyLimiter limiter = createLimiter(now, 8);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.acquire();
+
+        first.throttled(Duration.ofSeconds(10));
+        second.throttled(null);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(2, limiter.getThrottledCount());
+
+        // completing a permit twice must not release it twice
+        first.success();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testNewRequestsWaitOutTheRetryAfterAndJitter() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(2), System::nanoTime, () -> 0.5);
+        limiter.acquire().throttled(Duration.ofMillis(200));
+
+        // the random value of 0.5 adds a quarter of the pause as jitter
+        long start = System.nanoTime();
+        limiter.acquire().success();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    public void testRequestsBeyondTheLimitWait() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = createLimiter(new AtomicLong(0), 1);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        held.ignore();
+        waiting.get(30, TimeUnit.SECONDS).success();
+        assertTrue(limiter.getLimit() >= 1);
+    }
+
+    @Test
+    public void testTryAcquireGivesUpAfterTheTimeout() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 64, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(2), System::nanoTime, () -> 0.5);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire(Duration.ZERO).orElse(null);
+        assertNotNull(held);
+
+        assertFalse(limiter.tryAcquire(Duration.ofMillis(20)).isPresent());
+        assertEquals(1, limiter.getInFlight());
+
+        held.success();
+        assertTrue(limiter.tryAcquire(Duration.ZERO).isPresent());
+    }
+
+    @Test
+    public void testInvalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(0, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(8, 1, 4));
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(AtomicLong now, int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 1, 64, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(2), now::get, () -> 0.5);
+    }
+
+}
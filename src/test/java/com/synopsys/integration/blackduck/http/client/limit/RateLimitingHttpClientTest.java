@@ -0,0 +1,132 @@
+package com.synopsys.integration.blackduck.http.client.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.response.UrlSingleResponse;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BlackDuckRequestTestUtil;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.response.Response;
+
+public class RateLimitingHttpClientTest {
+    @Test
+    public void testThrottledRequestsAreSentAgain() throws IntegrationException, IOException {
+        Response throttled = mockResponse(429, "0");
+        Response success = mockResponse(200, null);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(throttled, success);
+
+        AdaptiveConcurrencyLimiter limiter = createLimiter();
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(blackDuckHttpClient, limiter, 3);
+
+        Response response = rateLimitingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest());
+        assertSame(success, ((PermitReleasingResponse) response).getResponse());
+        Mockito.verify(throttled).close();
+        // the request keeps its place until its response is finished with
+        assertEquals(1, limiter.getInFlight());
+
+        response.close();
+        assertEquals(1, limiter.getThrottledCount());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testThrottledPostsAreNotSentAgain() throws IntegrationException, IOException {
+        Response throttled = mockResponse(429, "0");
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(throttled);
+
+        AdaptiveConcurrencyLimiter limiter = createLimiter();
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(blackDuckHttpClient, limiter, 3);
+
+        BlackDuckRequest<ProjectView, UrlSingleResponse<ProjectView>> postRequest = BlackDuckRequest.createSingleRequest(new BlackDuckRequestBuilder().postString("{}", ContentType.APPLICATION_JSON),
+            new HttpUrl(BlackDuckRequestTestUtil.PROJECTS_URL), ProjectView.class);
+        assertSame(throttled, rateLimitingHttpClient.execute(postRequest));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+        Mockito.verify(throttled, Mockito.never()).close();
+        assertEquals(1, limiter.getThrottledCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testTheLastThrottledResponseIsReturned() throws IntegrationException, IOException {
+        Response throttled = mockResponse(503, null);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(throttled);
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 64, 0.5, Duration.ZERO, Duration.ZERO, System::nanoTime, () -> 0);
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(blackDuckHttpClient, limiter, 2);
+
+        assertSame(throttled, rateLimitingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest()));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any());
+        Mockito.verify(throttled, Mockito.times(1)).close();
+    }
+
+    @Test
+    public void testErrorResponsesGiveTheirPlaceUpImmediately() throws IntegrationException {
+        Response notFound = mockResponse(404, null);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(notFound);
+
+        AdaptiveConcurrencyLimiter limiter = createLimiter();
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(blackDuckHttpClient, limiter, 3);
+
+        assertSame(notFound, rateLimitingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest()));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testWaitingForAPlaceTimesOut() throws IntegrationException, InterruptedException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 64, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(2), System::nanoTime, () -> 0);
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(blackDuckHttpClient, limiter, 3, Duration.ofMillis(10), System::currentTimeMillis);
+
+        // a response that is never closed keeps the only place
+        limiter.acquire();
+        assertThrows(IntegrationException.class, () -> rateLimitingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest()));
+        Mockito.verify(blackDuckHttpClient, Mockito.never()).execute(Mockito.any());
+    }
+
+    @Test
+    public void testRetryAfterSecondsAndDates() {
+        AtomicLong now = new AtomicLong(1445412480000L);
+        RateLimitingHttpClient rateLimitingHttpClient = new RateLimitingHttpClient(Mockito.mock(BlackDuckHttpClient.class), createLimiter(), 3, now::get);
+
+        assertEquals(Duration.ofSeconds(120), rateLimitingHttpClient.parseRetryAfter(" 120 ").orElse(null));
+        // Wed, 21 Oct 2015 07:28:00 GMT
+        assertEquals(Duration.ofMinutes(2), rateLimitingHttpClient.parseRetryAfter("Wed, 21 Oct 2015 07:30:00 GMT").orElse(null));
+        assertEquals(Duration.ZERO, rateLimitingHttpClient.parseRetryAfter("Wed, 21 Oct 2015 07:00:00 GMT").orElse(null));
+        assertFalse(rateLimitingHttpClient.parseRetryAfter("soon").isPresent());
+        assertFalse(rateLimitingHttpClient.parseRetryAfter(null).isPresent());
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter() {
+        return new AdaptiveConcurrencyLimiter(8, 1, 64, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(2), System::nanoTime, () -> 0);
+    }
+
+    private Response mockResponse(int statusCode, String retryAfter) {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        Mockito.when(response.isStatusCodeSuccess()).thenReturn(statusCode >= 200 && statusCode < 300);
+        Mockito.when(response.getHeaderValue(HttpHeaders.RETRY_AFTER)).thenReturn(retryAfter);
+        return response;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class EndpointMetricsRegistryTest {
+    @Test
+    public void testRequestsAreGroupedByMethodAndTemplate() {
+        EndpointMetricsRegistry endpointMetricsRegistry = new EndpointMetricsRegistry();
+        endpointMetricsRegistry.record(createMetric("GET", "/api/projects/{id}", 200, 10));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/projects/{id}", 404, 20));
+        endpointMetricsRegistry.record(createMetric("PUT", "/api/projects/{id}", 200, 30));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/codelocations", RequestMetric.NO_STATUS, 40));
+
+        List<EndpointMetrics> endpointMetrics = endpointMetricsRegistry.getEndpointMetrics();
+        assertEquals(3, endpointMetrics.size());
+
+        EndpointMetrics codeLocations = endpointMetrics.get(0);
+        assertEquals("/api/codelocations", codeLocations.getTemplate());
+        assertEquals(1, codeLocations.getErrorCount());
+        assertEquals(1, codeLocations.getCountsByStatusCode().get(RequestMetric.NO_STATUS).longValue());
+
+        EndpointMetrics getProject = endpointMetrics.get(1);
+        assertEquals("GET", getProject.getMethod());
+        assertEquals(2, getProject.getRequestCount());
+        assertEquals(1, getProject.getErrorCount());
+        assertEquals(200, getProject.getBytesSent());
+        assertEquals(2000, getProject.getBytesReceived());
+        assertEquals(2, getProject.getTotalLatency().getCount());
+        assertEquals(20_000, getProject.getTotalLatency().getMax());
+        assertEquals(10_000, getProject.getTimeToHeaders().getMax());
+    }
+
+    @Test
+    public void testTooManyEndpointsAreCountedTogether() {
+        EndpointMetricsRegistry endpointMetricsRegistry = new EndpointMetricsRegistry(2);
+        endpointMetricsRegistry.record(createMetric("GET", "/api/a", 200, 1));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/b", 200, 1));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/c", 200, 1));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/d", 200, 1));
+        endpointMetricsRegistry.record(createMetric("GET", "/api/a", 200, 1));
+
+        List<EndpointMetrics> endpointMetrics = endpointMetricsRegistry.getEndpointMetrics();
+        assertEquals(3, endpointMetrics.size());
+        assertEquals(2, endpointMetrics.get(0).getRequestCount());
+        assertEquals(EndpointMetricsRegistry.OTHER_TEMPLATE, endpointMetrics.get(2).getTemplate());
+        assertEquals(2, endpointMetrics.get(2).getRequestCount());
+    }
+
+    private RequestMetric createMetric(String method, String template, int statusCode, long milliseconds) {
+        long totalNanos = TimeUnit.MILLISECONDS.toNanos(milliseconds);
+        return new RequestMetric(template, method, statusCode, 100, 1000, totalNanos / 2, totalNanos);
+    }
+
+}
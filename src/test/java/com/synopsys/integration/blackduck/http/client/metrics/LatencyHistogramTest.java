@@ -0,0 +1,57 @@
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testBucketsAreContiguous() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucketIndex = LatencyHistogram.getBucketIndex(value);
+            assertTrue(value <= LatencyHistogram.getHighestValue(bucketIndex));
+            if (bucketIndex > 0) {
+                assertTrue(value > LatencyHistogram.getHighestValue(bucketIndex - 1));
+            }
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getHighestValue(LatencyHistogram.getBucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentilesAreWithinTheBucketPrecision() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10_000; micros++) {
+            latencyHistogram.record(micros);
+        }
+
+        assertEquals(10_000, latencyHistogram.getCount());
+        assertEquals(10_000, latencyHistogram.getMax());
+        assertEquals(5000.5, latencyHistogram.getMean(), 0.001);
+        assertWithin(5000, latencyHistogram.getValueAtPercentile(50));
+        assertWithin(9900, latencyHistogram.getValueAtPercentile(99));
+        assertEquals(10_000, latencyHistogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testExportedCountsAddUp() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.recordNanos(3_000);
+        latencyHistogram.recordNanos(3_500);
+        latencyHistogram.record(1_000_000);
+        latencyHistogram.record(-5);
+
+        Map<Long, Long> countsByHighestValue = latencyHistogram.getCountsByHighestValue();
+        assertEquals(4, countsByHighestValue.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2, countsByHighestValue.get(3L).longValue());
+        assertEquals(1, countsByHighestValue.get(0L).longValue());
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+
+    private void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125, String.format("%d is not within 12.5%% of %d", actual, expected));
+    }
+
+}
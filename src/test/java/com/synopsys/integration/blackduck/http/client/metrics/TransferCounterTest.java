@@ -0,0 +1,45 @@
+package com.synopsys.integration.blackduck.http.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+
+public class TransferCounterTest {
+    @Test
+    public void testPausedExchangesAreNotCounted() throws IOException, HttpException {
+        HttpRequestInterceptor requestInterceptor = TransferCounter.createRequestInterceptor();
+        TransferCounter transferCounter = TransferCounter.start();
+        try {
+            send(requestInterceptor, "counted");
+
+            // an authentication exchange made for the request
+            TransferCounter paused = TransferCounter.pause();
+            send(requestInterceptor, "not counted");
+            TransferCounter.resume(paused);
+
+            send(requestInterceptor, "counted");
+            assertEquals(14, transferCounter.getBytesSent());
+        } finally {
+            TransferCounter.stop();
+        }
+        assertNull(TransferCounter.pause());
+    }
+
+    private void send(HttpRequestInterceptor requestInterceptor, String body) throws IOException, HttpException {
+        HttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "https://blackduckserver.com/api/projects");
+        request.setEntity(new StringEntity(body));
+        requestInterceptor.process(request, new BasicHttpContext());
+        request.getEntity().writeTo(new ByteArrayOutputStream());
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.synopsys.integration.blackduck.http.client.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.BlackDuckRequestTestUtil;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.response.Response;
+
+public class RetryingHttpClientTest {
+    private final List<Duration> backoffs = new ArrayList<>();
+
+    @Test
+    public void testTransientFailuresAreRetriedWithBackoff() throws IntegrationException, IOException {
+        Response badGateway = mockResponse(502);
+        Response success = mockResponse(200);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any()))
+            .thenThrow(new IntegrationException("Could not execute.", new IOException("Connection reset")))
+            .thenReturn(badGateway)
+            .thenReturn(success);
+
+        RetryingHttpClient retryingHttpClient = new RetryingHttpClient(blackDuckHttpClient, createRetrier(new RetryBudget()));
+
+        assertSame(success, retryingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().commonGet())));
+        Mockito.verify(badGateway).close();
+        assertEquals(2, backoffs.size());
+        assertEquals(Duration.ofMillis(50), backoffs.get(0));
+        assertEquals(Duration.ofMillis(100), backoffs.get(1));
+    }
+
+    @Test
+    public void testPostsAreNotRetried() throws IntegrationException {
+        Response badGateway = mockResponse(502);
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenReturn(badGateway);
+
+        RetryingHttpClient retryingHttpClient = new RetryingHttpClient(blackDuckHttpClient, createRetrier(new RetryBudget()));
+
+        assertSame(badGateway, retryingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().post())));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testRetriesStopWhenTheBudgetIsSpent() throws IntegrationException {
+        IntegrationException failure = new IntegrationException("Could not execute.", new IOException("Connection reset"));
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenThrow(failure);
+
+        RetryBudget retryBudget = new RetryBudget(0.1, 1);
+        RetryingHttpClient retryingHttpClient = new RetryingHttpClient(blackDuckHttpClient, createRetrier(retryBudget));
+
+        assertSame(failure, assertThrows(IntegrationException.class, () -> retryingHttpClient.execute(BlackDuckRequestTestUtil.createProjectRequest(new BlackDuckRequestBuilder().commonGet()))));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any());
+        assertEquals(1, retryBudget.getRetryCount());
+        assertEquals(1, retryBudget.getDeniedCount());
+    }
+
+    @Test
+    public void testOnlyTransientExceptionsAreRetryable() {
+        ExponentialBackoffRetryPolicy retryPolicy = new ExponentialBackoffRetryPolicy();
+        assertTrue(retryPolicy.isRetryable(new IntegrationException("reset", new IOException("Connection reset"))));
+        assertFalse(retryPolicy.isRetryable(new IntegrationException("no host", new UnknownHostException("blackduckserver.com"))));
+        assertFalse(retryPolicy.isRetryable(new IntegrationException("bad request")));
+        assertTrue(retryPolicy.isRetryable(504));
+        assertFalse(retryPolicy.isRetryable(500));
+    }
+
+    private Retrier createRetrier(RetryBudget retryBudget) {
+        return new Retrier(new ExponentialBackoffRetryPolicy(4, Duration.ofMillis(100), Duration.ofSeconds(1), () -> 0), retryBudget, backoffs::add);
+    }
+
+    private Response mockResponse(int statusCode) {
+        Response response = Mockito.mock(Response.class);
+        Mockito.when(response.getStatusCode()).thenReturn(statusCode);
+        return response;
+    }
+
+}
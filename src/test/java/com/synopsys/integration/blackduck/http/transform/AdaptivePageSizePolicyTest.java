@@ -0,0 +1,80 @@
+package com.synopsys.integration.blackduck.http.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptivePageSizePolicyTest {
+    private static final String USERS = "/api/users";
+    private static final String COMPONENTS = "/api/projects/{id}/versions/{id}/components";
+
+    @Test
+    public void testFastPagesGrowAndSlowPagesShrinkWithinBounds() {
+        AdaptivePageSizePolicy policy = new AdaptivePageSizePolicy(25, 400, Duration.ofSeconds(2), 1024 * 1024, 10);
+        assertEquals(100, policy.getLimit(USERS, 100));
+        assertEquals(25, policy.getLimit(USERS, 10));
+
+        policy.record(USERS, 100, 100, 10_000, millis(100));
+        assertEquals(200, policy.getLimit(USERS, 100));
+        policy.record(USERS, 200, 200, 20_000, millis(100));
+        policy.record(USERS, 400, 400, 40_000, millis(100));
+        assertEquals(400, policy.getLimit(USERS, 100));
+
+        policy.record(COMPONENTS, 100, 100, -1, millis(5000));
+        assertEquals(50, policy.getLimit(COMPONENTS, 100));
+        policy.record(COMPONENTS, 50, 50, -1, millis(5000));
+        policy.record(COMPONENTS, 25, 25, -1, millis(5000));
+        assertEquals(25, policy.getLimit(COMPONENTS, 100));
+        // the other endpoint is unaffected
+        assertEquals(400, policy.getLimit(USERS, 100));
+    }
+
+    @Test
+    public void testLargePagesShrinkEvenWhenFast() {
+        AdaptivePageSizePolicy policy = new AdaptivePageSizePolicy(25, 400, Duration.ofSeconds(2), 1024 * 1024, 10);
+        policy.record(COMPONENTS, 100, 100, 2 * 1024 * 1024, millis(10));
+        assertEquals(50, policy.getLimit(COMPONENTS, 100));
+    }
+
+    @Test
+    public void testPartialAndStalePagesTeachNothing() {
+        AdaptivePageSizePolicy policy = new AdaptivePageSizePolicy(25, 400, Duration.ofSeconds(2), 1024 * 1024, 10);
+        policy.record(USERS, 100, 40, 1000, millis(10));
+        assertEquals(100, policy.getLimit(USERS, 100));
+
+        policy.record(USERS, 100, 100, 10_000, millis(10));
+        assertEquals(200, policy.getLimit(USERS, 100));
+        // a slow page still using the old limit does not undo the growth
+        policy.record(USERS, 100, 100, 10_000, millis(5000));
+        assertEquals(200, policy.getLimit(USERS, 100));
+        // a page within the target keeps the limit
+        policy.record(USERS, 200, 200, 20_000, millis(1500));
+        assertEquals(200, policy.getLimit(USERS, 100));
+    }
+
+    @Test
+    public void testOnlyMaxEndpointsAreLearned() {
+        AdaptivePageSizePolicy policy = new AdaptivePageSizePolicy(25, 400, Duration.ofSeconds(2), 1024 * 1024, 1);
+        policy.record(USERS, 100, 100, 10_000, millis(10));
+        policy.record(COMPONENTS, 100, 100, 10_000, millis(10));
+
+        assertEquals(200, policy.getLimit(USERS, 100));
+        assertEquals(100, policy.getLimit(COMPONENTS, 100));
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePageSizePolicy(0, 400, Duration.ofSeconds(2), 1024, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePageSizePolicy(100, 50, Duration.ofSeconds(2), 1024, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePageSizePolicy(25, 400, Duration.ZERO, 1024, 10));
+    }
+
+    private long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+}
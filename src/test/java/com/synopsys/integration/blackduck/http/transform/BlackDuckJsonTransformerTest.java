@@ -3,8 +3,10 @@ package com.synopsys.integration.blackduck.http.transform;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
@@ -21,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.synopsys.integration.blackduck.TimingExtension;
 import com.synopsys.integration.blackduck.api.core.BlackDuckView;
 import com.synopsys.integration.blackduck.api.generated.view.ProjectVersionView;
@@ -70,6 +73,42 @@ public class BlackDuckJsonTransformerTest {
         assertJsonValid(json, projectView);
     }
 
+    @Test
+    public void testPatchIsOnlyCreatedWhenNeeded() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+
+        ProjectViewWithoutDescription projectView = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponseAs(json, ProjectViewWithoutDescription.class);
+        assertNull(projectView.getPatch());
+
+        String description = projectView.getJsonElement().getAsJsonObject().get("description").getAsString();
+        projectView.setName("a changed name");
+        String patchedJson = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.producePatchedJson(projectView);
+
+        JsonObject patched = BlackDuckJsonTransformerTest.gson.fromJson(patchedJson, JsonObject.class);
+        assertEquals("a changed name", patched.get("name").getAsString());
+        assertEquals(description, patched.get("description").getAsString());
+        assertNotNull(projectView.getPatch());
+    }
+
+    @Test
+    public void testLeanViewsKeepOnlyTheirFields() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectViewResponse.json");
+        String json = IOUtils.toString(jsonInputStream, StandardCharsets.UTF_8);
+        BlackDuckJsonTransformer leanTransformer = new BlackDuckJsonTransformer(gson, objectMapper, blackDuckResponseResolver, logger, false);
+
+        ProjectViewWithoutDescription projectView = leanTransformer.getResponseAs(json, ProjectViewWithoutDescription.class);
+        assertTrue(StringUtils.isNotBlank(projectView.getName()));
+        assertNull(projectView.getJson());
+        assertNull(projectView.getJsonElement());
+
+        projectView.setName("a changed name");
+        leanTransformer.restoreJson(projectView, json);
+        JsonObject patched = BlackDuckJsonTransformerTest.gson.fromJson(leanTransformer.producePatchedJson(projectView), JsonObject.class);
+        assertEquals("a changed name", patched.get("name").getAsString());
+        assertTrue(patched.has("description"));
+    }
+
     @Test
     public void testPageResults() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
@@ -91,6 +130,22 @@ public class BlackDuckJsonTransformerTest {
         }
     }
 
+    @Test
+    public void testPageResultsAreStreamed() throws Exception {
+        InputStream jsonInputStream = getClass().getResourceAsStream("/projectsResponse.json");
+        BlackDuckPageResponse<ProjectView> blackDuckPageResponse = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(jsonInputStream, ProjectView.class);
+        assertEquals(10, blackDuckPageResponse.getItems().size());
+        assertEquals(84, blackDuckPageResponse.getTotalCount());
+        for (ProjectView projectView : blackDuckPageResponse.getItems()) {
+            assertObjectValid(projectView);
+        }
+
+        String totalCountLast = "{\"items\":[{\"name\":\"first\"},{\"name\":\"second\"}],\"_meta\":{\"links\":[]},\"totalCount\":2}";
+        BlackDuckPageResponse<ProjectView> reordered = BlackDuckJsonTransformerTest.blackDuckJsonTransformer.getResponses(new ByteArrayInputStream(totalCountLast.getBytes(StandardCharsets.UTF_8)), ProjectView.class);
+        assertEquals(2, reordered.getTotalCount());
+        assertEquals("second", reordered.getItems().get(1).getName());
+    }
+
     @Test
     public void testArbitraryJsonDifference() throws Exception {
         InputStream jsonInputStream = getClass().getResourceAsStream("/complex.json");
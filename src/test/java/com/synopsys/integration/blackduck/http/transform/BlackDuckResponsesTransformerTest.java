@@ -1,17 +1,30 @@
 package com.synopsys.integration.blackduck.http.transform;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.function.Predicate;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 
@@ -21,6 +34,9 @@ import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
 import com.synopsys.integration.blackduck.http.BlackDuckPageResponse;
 import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
 import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.blackduck.http.client.retry.ExponentialBackoffRetryPolicy;
+import com.synopsys.integration.blackduck.http.client.retry.Retrier;
+import com.synopsys.integration.blackduck.http.client.retry.RetryBudget;
 import com.synopsys.integration.blackduck.http.transform.subclass.BlackDuckResponseResolver;
 import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
 import com.synopsys.integration.blackduck.service.request.BlackDuckMultipleRequest;
@@ -149,12 +165,291 @@ public class BlackDuckResponsesTransformerTest {
         assertEquals(20, allPagesResponse.getItems().size());
     }
 
+    @Test
+    public void testFailedPageResumesFromItsOffset() throws IOException, IntegrationException {
+        Map<String, String> offsetsToResults = new HashMap<>();
+        offsetsToResults.put("0", "projectViews_page_1_of_4.json");
+        offsetsToResults.put("20", "projectViews_page_2_of_4.json");
+        offsetsToResults.put("60", "projectViews_page_4_of_4.json");
+
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        mockClientBehavior(blackDuckHttpClient, offsetsToResults, 20);
+
+        // the connection drops while the third page is being read
+        Response failingResponse = Mockito.mock(Response.class);
+        Mockito.when(failingResponse.getContent())
+            .thenThrow(new IntegrationException("Could not read the content.", new IOException("Connection reset")))
+            .thenAnswer(invocation -> getContent("projectViews_page_3_of_4.json"));
+        Mockito.doReturn(failingResponse).when(blackDuckHttpClient).execute(Mockito.argThat(createRequestMatcher(new HttpUrl("https://blackduckserver.com/api/projects"), 40, 20)));
+
+        Gson gson = BlackDuckServicesFactory.createDefaultGson();
+        BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), blackDuckResponseResolver, new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        Retrier retrier = new Retrier(new ExponentialBackoffRetryPolicy(3, Duration.ZERO, Duration.ZERO), new RetryBudget(), duration -> {});
+
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .addQueryParameter(BlackDuckRequestBuilder.LIMIT_PARAMETER, "20")
+                                                              .addQueryParameter(BlackDuckRequestBuilder.OFFSET_PARAMETER, "0");
+        BlackDuckMultipleRequest<ProjectView> blackDuckRequest = BlackDuckRequest.createMultipleRequest(blackDuckRequestBuilder, new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class);
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, retrier);
+
+        BlackDuckPageResponse<ProjectView> allPagesResponse = blackDuckResponsesTransformer.getAllResponses(blackDuckRequest);
+        assertEquals(69, allPagesResponse.getItems().size());
+        assertEquals(1, retrier.getRetryBudget().getRetryCount());
+        // only the failed page was fetched twice
+        Mockito.verify(blackDuckHttpClient, Mockito.times(5)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testFailuresBeforeTheContentAreLeftToTheClient() throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenThrow(new IntegrationException("Could not connect.", new IOException("Connection refused")));
+
+        Gson gson = BlackDuckServicesFactory.createDefaultGson();
+        BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
+        BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), blackDuckResponseResolver, new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        RetryBudget retryBudget = new RetryBudget();
+        Retrier retrier = new Retrier(new ExponentialBackoffRetryPolicy(3, Duration.ZERO, Duration.ZERO), retryBudget, duration -> {});
+
+        BlackDuckMultipleRequest<ProjectView> blackDuckRequest = BlackDuckRequest.createMultipleRequest(new BlackDuckRequestBuilder().commonGet(), new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class);
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, blackDuckJsonTransformer, retrier);
+
+        assertThrows(IntegrationException.class, () -> blackDuckResponsesTransformer.getAllResponses(blackDuckRequest));
+        Mockito.verify(blackDuckHttpClient, Mockito.times(1)).execute(Mockito.any());
+        assertEquals(0, retryBudget.getRetryCount());
+        assertEquals(RetryBudget.DEFAULT_MAX_BALANCE, retryBudget.getBalance());
+    }
+
+    @Test
+    public void testParallelPagesKeepTheirOrder() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        List<ProjectView> sequentialItems = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            BlackDuckResponsesTransformer parallelTransformer = new BlackDuckResponsesTransformer(mockedClient.blackDuckHttpClient, mockedClient.blackDuckJsonTransformer, Retrier.never(), executorService);
+            parallelTransformer.setPagingParallelism(3);
+
+            BlackDuckPageResponse<ProjectView> allPagesResponse = parallelTransformer.getAllResponses(mockedClient.blackDuckRequest);
+            assertEquals(69, allPagesResponse.getTotalCount());
+            assertEquals(69, allPagesResponse.getItems().size());
+            for (int i = 0; i < sequentialItems.size(); i++) {
+                assertEquals(sequentialItems.get(i).getHref(), allPagesResponse.getItems().get(i).getHref());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPagesAreFetchedHereWhenTheExecutorIsSaturated() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        List<ProjectView> sequentialItems = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+        BlackDuckResponsesTransformer parallelTransformer = new BlackDuckResponsesTransformer(mockedClient.blackDuckHttpClient, mockedClient.blackDuckJsonTransformer, Retrier.never(), executorService);
+        parallelTransformer.setPagingParallelism(3);
+
+        BlackDuckPageResponse<ProjectView> allPagesResponse = parallelTransformer.getAllResponses(mockedClient.blackDuckRequest);
+        assertEquals(69, allPagesResponse.getItems().size());
+        for (int i = 0; i < sequentialItems.size(); i++) {
+            assertEquals(sequentialItems.get(i).getHref(), allPagesResponse.getItems().get(i).getHref());
+        }
+    }
+
+    @Test
+    public void testAShutDownPagingExecutorStillFetchesEveryPage() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        List<ProjectView> sequentialItems = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems();
+
+        // CallerRunsPolicy would silently drop the pages a shut down executor rejects
+        Executor pagingExecutor = BlackDuckResponsesTransformer.createPagingExecutor(2);
+        ((ExecutorService) pagingExecutor).shutdown();
+        BlackDuckResponsesTransformer parallelTransformer = new BlackDuckResponsesTransformer(mockedClient.blackDuckHttpClient, mockedClient.blackDuckJsonTransformer, Retrier.never(), pagingExecutor);
+        parallelTransformer.setPagingParallelism(3);
+
+        BlackDuckPageResponse<ProjectView> allPagesResponse = parallelTransformer.getAllResponses(mockedClient.blackDuckRequest);
+        assertEquals(69, allPagesResponse.getItems().size());
+        for (int i = 0; i < sequentialItems.size(); i++) {
+            assertEquals(sequentialItems.get(i).getHref(), allPagesResponse.getItems().get(i).getHref());
+        }
+    }
+
+    @Test
+    public void testParallelMatchingStartsNoPagesOnceEnoughMatched() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        List<ProjectView> allItems = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems();
+        String firstOnSecondPage = allItems.get(20).getHref().string();
+        Mockito.clearInvocations(mockedClient.blackDuckHttpClient);
+
+        mockedClient.blackDuckResponsesTransformer.setPagingParallelism(2);
+        Predicate<ProjectView> predicate = projectView -> firstOnSecondPage.equals(projectView.getHref().string());
+        BlackDuckPageResponse<ProjectView> matchedResponse = mockedClient.blackDuckResponsesTransformer.getSomeMatchingResponses(mockedClient.blackDuckRequest, predicate, 1);
+
+        assertEquals(1, matchedResponse.getItems().size());
+        assertEquals(firstOnSecondPage, matchedResponse.getItems().get(0).getHref().string());
+        // the first page, then the window of two - the last page is never requested
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.times(3)).execute(Mockito.any());
+        assertThrows(IllegalArgumentException.class, () -> mockedClient.blackDuckResponsesTransformer.setPagingParallelism(0));
+    }
+
+    @Test
+    public void testStreamingReadsEveryPageInOrder() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        List<ProjectView> allItems = mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest).getItems();
+        Mockito.clearInvocations(mockedClient.blackDuckHttpClient);
+
+        List<ProjectView> streamedItems;
+        try (Stream<ProjectView> projectViews = mockedClient.blackDuckResponsesTransformer.streamResponses(mockedClient.blackDuckRequest)) {
+            streamedItems = projectViews.collect(Collectors.toList());
+        }
+
+        assertEquals(69, streamedItems.size());
+        for (int i = 0; i < allItems.size(); i++) {
+            assertEquals(allItems.get(i).getHref(), streamedItems.get(i).getHref());
+        }
+        // no page is requested beyond the total count
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.times(4)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testClosingTheStreamStopsPaging() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+
+        BlackDuckPageIterator<ProjectView> unread = mockedClient.blackDuckResponsesTransformer.iterateResponses(mockedClient.blackDuckRequest);
+        unread.close();
+        assertFalse(unread.hasNext());
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.never()).execute(Mockito.any());
+
+        try (Stream<ProjectView> projectViews = mockedClient.blackDuckResponsesTransformer.streamResponses(mockedClient.blackDuckRequest)) {
+            assertTrue(projectViews.findFirst().isPresent());
+        }
+        // the first page and the one read ahead
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testPageSizePolicyOnlyChangesTheDefaultLimit() throws IOException, IntegrationException {
+        MockedClient mockedClient = new MockedClient();
+        PageSizePolicy pageSizePolicy = Mockito.mock(PageSizePolicy.class);
+        Mockito.when(pageSizePolicy.getLimit(Mockito.anyString(), Mockito.anyInt())).thenReturn(20);
+        mockedClient.blackDuckResponsesTransformer.setPageSizePolicy(pageSizePolicy);
+
+        // the caller's own limit is kept, and its pages are not recorded
+        mockedClient.blackDuckResponsesTransformer.getAllResponses(mockedClient.blackDuckRequest);
+        Mockito.verify(pageSizePolicy, Mockito.never()).getLimit(Mockito.anyString(), Mockito.anyInt());
+        Mockito.verify(pageSizePolicy, Mockito.never()).record(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyLong());
+
+        // even when the caller chose the same limit as the default
+        BlackDuckRequestBuilder explicitLimitRequestBuilder = new BlackDuckRequestBuilder().commonGet().setLimit(BlackDuckRequestBuilder.DEFAULT_LIMIT);
+        assertFalse(BlackDuckRequest.createMultipleRequest(explicitLimitRequestBuilder, new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class).isDefaultLimit());
+        assertTrue(BlackDuckRequest.createMultipleRequest(new BlackDuckRequestBuilder().get(), new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class).isDefaultLimit());
+        Mockito.clearInvocations(mockedClient.blackDuckHttpClient, pageSizePolicy);
+
+        BlackDuckMultipleRequest<ProjectView> defaultLimitRequest = BlackDuckRequest.createMultipleRequest(new BlackDuckRequestBuilder().commonGet(), new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class);
+        BlackDuckPageResponse<ProjectView> allPagesResponse = mockedClient.blackDuckResponsesTransformer.getAllResponses(defaultLimitRequest);
+        assertEquals(69, allPagesResponse.getItems().size());
+
+        ArgumentCaptor<BlackDuckRequest> executed = ArgumentCaptor.forClass(BlackDuckRequest.class);
+        Mockito.verify(mockedClient.blackDuckHttpClient, Mockito.times(4)).execute(executed.capture());
+        for (BlackDuckRequest<?, ?> request : executed.getAllValues()) {
+            assertEquals(20, mockedClient.blackDuckResponsesTransformer.getLimit(request));
+        }
+        Mockito.verify(pageSizePolicy).getLimit("/api/projects", BlackDuckRequestBuilder.DEFAULT_LIMIT);
+        Mockito.verify(pageSizePolicy, Mockito.times(3)).record(Mockito.eq("/api/projects"), Mockito.eq(20), Mockito.eq(20), Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(pageSizePolicy).record(Mockito.eq("/api/projects"), Mockito.eq(20), Mockito.eq(9), Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testDistinctPagingSkipsItemsPushedOntoTheNextPage() throws IOException, IntegrationException {
+        // one project is inserted ahead of the read position after the first page, pushing project 19 onto the second
+        Map<String, String> pagesByOffsetAndLimit = new HashMap<>();
+        pagesByOffsetAndLimit.put("0:20", createPage(50, 0, 20));
+        pagesByOffsetAndLimit.put("20:20", createPage(51, 19, 39));
+        pagesByOffsetAndLimit.put("40:20", createPage(51, 39, 50));
+
+        BlackDuckPageResponse<ProjectView> distinctResponse = createShiftingTransformer(pagesByOffsetAndLimit).getAllDistinctResponses(createShiftingRequest());
+        assertProjects(distinctResponse.getItems(), 50);
+        assertEquals(51, distinctResponse.getTotalCount());
+    }
+
+    @Test
+    public void testDistinctPagingRereadsItemsPulledBackByRemovals() throws IOException, IntegrationException {
+        // two projects are removed ahead of the read position after the first page, pulling projects 20 and 21 back onto it
+        Map<String, String> pagesByOffsetAndLimit = new HashMap<>();
+        pagesByOffsetAndLimit.put("0:20", createPage(50, 0, 20));
+        pagesByOffsetAndLimit.put("20:20", createPage(48, 22, 42));
+        pagesByOffsetAndLimit.put("18:2", createPage(48, 20, 22));
+        pagesByOffsetAndLimit.put("40:20", createPage(48, 42, 50));
+
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = createShiftingTransformer(pagesByOffsetAndLimit);
+        BlackDuckPageResponse<ProjectView> distinctResponse = blackDuckResponsesTransformer.getAllDistinctResponses(createShiftingRequest());
+        assertProjects(distinctResponse.getItems(), 50);
+        assertEquals(48, distinctResponse.getTotalCount());
+
+        Predicate<ProjectView> predicate = projectView -> projectView.getName().equals("project 21");
+        BlackDuckPageResponse<ProjectView> matchedResponse = blackDuckResponsesTransformer.getSomeMatchingDistinctResponses(createShiftingRequest(), predicate, 1);
+        assertEquals(1, matchedResponse.getItems().size());
+        assertEquals("project 21", matchedResponse.getItems().get(0).getName());
+    }
+
+    private BlackDuckResponsesTransformer createShiftingTransformer(Map<String, String> pagesByOffsetAndLimit) throws IntegrationException {
+        BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+        BlackDuckResponsesTransformer blackDuckResponsesTransformer = new BlackDuckResponsesTransformer(blackDuckHttpClient, createJsonTransformer());
+
+        Map<String, Response> responsesByOffsetAndLimit = new HashMap<>();
+        for (Map.Entry<String, String> page : pagesByOffsetAndLimit.entrySet()) {
+            Response response = Mockito.mock(Response.class);
+            Mockito.when(response.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(page.getValue().getBytes(StandardCharsets.UTF_8)));
+            responsesByOffsetAndLimit.put(page.getKey(), response);
+        }
+        Mockito.when(blackDuckHttpClient.execute(Mockito.any())).thenAnswer(invocation -> {
+            BlackDuckRequest<?, ?> request = invocation.getArgument(0);
+            String offsetAndLimit = blackDuckResponsesTransformer.getOffset(request) + ":" + blackDuckResponsesTransformer.getLimit(request);
+            return responsesByOffsetAndLimit.get(offsetAndLimit);
+        });
+        return blackDuckResponsesTransformer;
+    }
+
+    private BlackDuckMultipleRequest<ProjectView> createShiftingRequest() throws IntegrationException {
+        BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
+                                                              .commonGet()
+                                                              .setLimitAndOffset(20, 0);
+        return BlackDuckRequest.createMultipleRequest(blackDuckRequestBuilder, new HttpUrl("https://blackduckserver.com/api/projects"), ProjectView.class);
+    }
+
+    private String createPage(int totalCount, int firstProject, int endProject) {
+        StringBuilder page = new StringBuilder("{\"totalCount\":").append(totalCount).append(",\"items\":[");
+        for (int i = firstProject; i < endProject; i++) {
+            if (i > firstProject) {
+                page.append(',');
+            }
+            page.append(String.format("{\"name\":\"project %d\",\"_meta\":{\"href\":\"https://blackduckserver.com/api/projects/%d\"}}", i, i));
+        }
+        return page.append("]}").toString();
+    }
+
+    private void assertProjects(List<ProjectView> projectViews, int projectCount) {
+        assertEquals(projectCount, projectViews.size());
+        for (int i = 0; i < projectCount; i++) {
+            assertEquals("project " + i, projectViews.get(i).getName());
+        }
+    }
+
+    private BlackDuckJsonTransformer createJsonTransformer() {
+        Gson gson = BlackDuckServicesFactory.createDefaultGson();
+        BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
+        return new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), blackDuckResponseResolver, new PrintStreamIntLogger(System.out, LogLevel.INFO));
+    }
+
     private void mockClientBehavior(BlackDuckHttpClient blackDuckHttpClient, Map<String, String> offsetsToResults, int limit) throws IOException, IntegrationException {
         Set<String> knownsOffsets = offsetsToResults.keySet();
 
         for (Map.Entry<String, String> entry : offsetsToResults.entrySet()) {
             Response response = Mockito.mock(Response.class);
-            Mockito.when(response.getContentString()).thenReturn(getText(entry.getValue()));
+            Mockito.when(response.getContent()).thenAnswer(invocation -> getContent(entry.getValue()));
 
             ArgumentMatcher<BlackDuckRequest> argRequest = createRequestMatcher(new HttpUrl("https://blackduckserver.com/api/projects"), Integer.parseInt(entry.getKey()), limit);
             Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(argRequest))).thenReturn(response);
@@ -165,7 +460,7 @@ public class BlackDuckResponsesTransformerTest {
             return !knownsOffsets.contains(requestOffset);
         };
         Response response = Mockito.mock(Response.class);
-        Mockito.when(response.getContentString()).thenReturn(getText("projectViews_empty.json"));
+        Mockito.when(response.getContent()).thenAnswer(invocation -> getContent("projectViews_empty.json"));
         Mockito.when(blackDuckHttpClient.execute(Mockito.argThat(unknownOffsetRequest))).thenReturn(response);
     }
 
@@ -182,11 +477,17 @@ public class BlackDuckResponsesTransformerTest {
         };
     }
 
+    private InputStream getContent(String resourceName) throws IOException {
+        return new ByteArrayInputStream(getText(resourceName).getBytes(StandardCharsets.UTF_8));
+    }
+
     private String getText(String resourceName) throws IOException {
         return IOUtils.toString(getClass().getResourceAsStream("/BlackDuckResponsesTransformer/" + resourceName), StandardCharsets.UTF_8);
     }
 
     private class MockedClient {
+        private final BlackDuckHttpClient blackDuckHttpClient;
+        private final BlackDuckJsonTransformer blackDuckJsonTransformer;
         private final BlackDuckMultipleRequest<ProjectView> blackDuckRequest;
         private final BlackDuckResponsesTransformer blackDuckResponsesTransformer;
 
@@ -197,12 +498,12 @@ public class BlackDuckResponsesTransformerTest {
             offsetsToResults.put("40", "projectViews_page_3_of_4.json");
             offsetsToResults.put("60", "projectViews_page_4_of_4.json");
 
-            BlackDuckHttpClient blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
+            blackDuckHttpClient = Mockito.mock(BlackDuckHttpClient.class);
             mockClientBehavior(blackDuckHttpClient, offsetsToResults, 20);
 
             Gson gson = BlackDuckServicesFactory.createDefaultGson();
             BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(gson);
-            BlackDuckJsonTransformer blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), blackDuckResponseResolver, new PrintStreamIntLogger(System.out, LogLevel.INFO));
+            blackDuckJsonTransformer = new BlackDuckJsonTransformer(gson, BlackDuckServicesFactory.createDefaultObjectMapper(), blackDuckResponseResolver, new PrintStreamIntLogger(System.out, LogLevel.INFO));
 
             BlackDuckRequestBuilder blackDuckRequestBuilder = new BlackDuckRequestBuilder()
                                                                   .addQueryParameter(BlackDuckRequestBuilder.LIMIT_PARAMETER, "20")
@@ -0,0 +1,23 @@
+package com.synopsys.integration.blackduck.http.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class HrefFingerprintsTest {
+    @Test
+    public void testEachHrefIsAddedOnce() {
+        HrefFingerprints hrefFingerprints = new HrefFingerprints();
+        int hrefCount = 100_000;
+        for (int i = 0; i < hrefCount; i++) {
+            assertTrue(hrefFingerprints.add("https://blackduckserver.com/api/codelocations/" + i));
+        }
+        for (int i = 0; i < hrefCount; i++) {
+            assertFalse(hrefFingerprints.add("https://blackduckserver.com/api/codelocations/" + i));
+        }
+        assertEquals(hrefCount, hrefFingerprints.size());
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.synopsys.integration.blackduck.http.transform.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.synopsys.integration.blackduck.service.BlackDuckServicesFactory;
+import com.synopsys.integration.rest.RestConstants;
+
+public class BlackDuckDateTypeAdapterTest {
+    private static final int BENCHMARK_ROUNDS = 20;
+
+    private final TypeAdapter<Date> gsonDateAdapter = new GsonBuilder().setDateFormat(RestConstants.JSON_DATE_FORMAT).create().getAdapter(Date.class);
+    private final TypeAdapter<Date> blackDuckDateAdapter = BlackDuckServicesFactory.createDefaultGson().getAdapter(Date.class);
+
+    @Test
+    public void testDatesAreReadAndWrittenAsGsonDoes() throws IOException {
+        String[] dates = { "2021-06-01T10:15:30.123Z", "1999-12-31T23:59:59.999Z", "2021-13-01T10:15:30.123Z", "2021-06-01T10:15:30.5Z", "2021-06-01T10:15:30Z" };
+        for (String date : dates) {
+            String json = "\"" + date + "\"";
+            Date expected = gsonDateAdapter.fromJson(json);
+            assertEquals(expected, blackDuckDateAdapter.fromJson(json), date);
+            assertEquals(gsonDateAdapter.toJson(expected), blackDuckDateAdapter.toJson(expected), date);
+        }
+
+        assertNull(blackDuckDateAdapter.fromJson("null"));
+        assertEquals("null", blackDuckDateAdapter.toJson(null));
+        assertNull(BlackDuckDateTypeAdapter.parse("2021-06-01T10:15:30.12xZ"));
+    }
+
+    /**
+     * Measures rather than asserts - timings on a shared build machine are
+     * too noisy to fail a build on, so the numbers are only reported.
+     */
+    @Test
+    public void testReadingAndWritingComparedWithGson() throws IOException {
+        String[] dates = new String[1_000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = String.format("\"2021-06-%02dT10:%02d:30.%03dZ\"", 1 + i % 28, i % 60, i % 1000);
+        }
+
+        // the first rounds only warm up the JIT
+        for (int round = 0; round < 5; round++) {
+            measure(gsonDateAdapter, dates);
+            measure(blackDuckDateAdapter, dates);
+        }
+        long gsonNanos = measure(gsonDateAdapter, dates);
+        long blackDuckNanos = measure(blackDuckDateAdapter, dates);
+
+        long operations = (long) BENCHMARK_ROUNDS * dates.length;
+        System.out.println(String.format("Date read and write - Gson: %d ns/op, BlackDuckDateTypeAdapter: %d ns/op (%.1fx)", gsonNanos / operations, blackDuckNanos / operations, (double) gsonNanos / blackDuckNanos));
+    }
+
+    @Test
+    public void testDatesAreReadCorrectlyOnSeveralThreadsAtOnce() throws Exception {
+        int threads = 4;
+        String[] dates = new String[5_000];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = String.format("\"2021-06-%02dT10:%02d:30.%03dZ\"", 1 + i % 28, i % 60, i % 1000);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (String date : dates) {
+                        assertEquals(gsonDateAdapter.fromJson(date), blackDuckDateAdapter.fromJson(date), date);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private long measure(TypeAdapter<Date> dateAdapter, String[] dates) throws IOException {
+        long start = System.nanoTime();
+        for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            for (String date : dates) {
+                // the written value is compared so the work can't be optimized away
+                assertEquals(date, dateAdapter.toJson(dateAdapter.fromJson(date)));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -9,8 +9,11 @@ import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 import com.google.gson.Gson;
+import com.synopsys.integration.blackduck.api.manual.view.NotificationUserView;
 import com.synopsys.integration.blackduck.api.manual.view.NotificationView;
 import com.synopsys.integration.blackduck.api.manual.view.ProjectVersionNotificationView;
+import com.synopsys.integration.blackduck.api.manual.view.UnknownNotificationUserView;
+import com.synopsys.integration.blackduck.api.manual.view.UnknownNotificationView;
 import com.synopsys.integration.blackduck.api.manual.view.VulnerabilityNotificationView;
 
 public class BlackDuckResponseResolverTest {
@@ -27,4 +30,12 @@ public class BlackDuckResponseResolverTest {
         assertTrue(vulnerabilityNotificationView instanceof VulnerabilityNotificationView);
     }
 
+    @Test
+    public void testUnrecognizedTypesAreUnknown() {
+        BlackDuckResponseResolver blackDuckResponseResolver = new BlackDuckResponseResolver(new Gson());
+
+        assertTrue(blackDuckResponseResolver.resolve("{\"type\":\"SOMETHING_NEW\",\"content\":{}}", NotificationView.class) instanceof UnknownNotificationView);
+        assertTrue(blackDuckResponseResolver.resolve("{\"content\":{}}", NotificationUserView.class) instanceof UnknownNotificationUserView);
+    }
+
 }
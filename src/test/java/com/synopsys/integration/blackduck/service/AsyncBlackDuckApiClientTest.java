@@ -0,0 +1,71 @@
+package com.synopsys.integration.blackduck.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.http.client.BlackDuckHttpClient;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class AsyncBlackDuckApiClientTest {
+    @Test
+    public void testRequestsRunConcurrentlyOnTheExecutor() throws Exception {
+        int requestCount = 4;
+        CountDownLatch allStarted = new CountDownLatch(requestCount);
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(ProjectView.class))).thenAnswer(invocation -> {
+            // no request can finish until every one of them has started
+            allStarted.countDown();
+            allStarted.await(30, TimeUnit.SECONDS);
+            ProjectView projectView = new ProjectView();
+            projectView.setName(invocation.<HttpUrl>getArgument(0).string());
+            return projectView;
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        try {
+            AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(Mockito.mock(BlackDuckHttpClient.class), blackDuckApiClient, executorService);
+            List<CompletableFuture<ProjectView>> futures = new ArrayList<>();
+            for (int i = 0; i < requestCount; i++) {
+                futures.add(asyncBlackDuckApiClient.getResponse(new HttpUrl("https://blackduckserver.com/api/projects/" + i), ProjectView.class));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < requestCount; i++) {
+                assertEquals("https://blackduckserver.com/api/projects/" + i, futures.get(i).get().getName());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailuresCompleteExceptionally() throws IntegrationException {
+        IntegrationException failure = new IntegrationException("not allowed");
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        Mockito.when(blackDuckApiClient.getResponse(Mockito.any(HttpUrl.class), Mockito.eq(ProjectView.class))).thenThrow(failure);
+
+        AsyncBlackDuckApiClient asyncBlackDuckApiClient = new AsyncBlackDuckApiClient(Mockito.mock(BlackDuckHttpClient.class), blackDuckApiClient, BlackDuckServicesFactory.NO_THREAD_EXECUTOR_SERVICE);
+        CompletableFuture<ProjectView> future = asyncBlackDuckApiClient.getResponse(new HttpUrl("https://blackduckserver.com/api/projects/1"), ProjectView.class);
+
+        assertTrue(future.isCompletedExceptionally());
+        ExecutionException executionException = assertThrows(ExecutionException.class, future::get);
+        assertSame(failure, executionException.getCause());
+    }
+
+}
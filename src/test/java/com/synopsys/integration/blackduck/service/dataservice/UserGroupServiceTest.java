@@ -0,0 +1,113 @@
+package com.synopsys.integration.blackduck.service.dataservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.synopsys.integration.blackduck.api.core.BlackDuckResponse;
+import com.synopsys.integration.blackduck.api.core.ResourceLink;
+import com.synopsys.integration.blackduck.api.core.ResourceMetadata;
+import com.synopsys.integration.blackduck.api.core.response.UrlMultipleResponses;
+import com.synopsys.integration.blackduck.api.generated.discovery.ApiDiscovery;
+import com.synopsys.integration.blackduck.api.generated.view.ProjectView;
+import com.synopsys.integration.blackduck.api.generated.view.UserGroupView;
+import com.synopsys.integration.blackduck.api.generated.view.UserView;
+import com.synopsys.integration.blackduck.api.manual.temporary.component.AssignedUserRequest;
+import com.synopsys.integration.blackduck.http.BlackDuckRequestBuilder;
+import com.synopsys.integration.blackduck.service.BlackDuckApiClient;
+import com.synopsys.integration.blackduck.service.request.BlackDuckRequest;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.BufferedIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class UserGroupServiceTest {
+    private static final String SERVER = "https://blackduckserver.com";
+
+    @Test
+    public void testGroupIsFoundByQueryAndExactName() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        ArgumentCaptor<BlackDuckRequest> request = mockMatchingResponses(blackDuckApiClient, createGroup("Admins-old"), createGroup("admins"));
+        UserGroupService userGroupService = new UserGroupService(blackDuckApiClient, new ApiDiscovery(new HttpUrl(SERVER)), new BufferedIntLogger());
+
+        Optional<UserGroupView> userGroupView = userGroupService.getGroupByName("Admins");
+        assertEquals("admins", userGroupView.map(UserGroupView::getName).orElse(null));
+        assertEquals("name:Admins", getQuery(request.getValue()));
+
+        assertFalse(userGroupService.getGroupByName("Auditors").isPresent());
+        Mockito.verify(blackDuckApiClient, Mockito.never()).getAllResponses(Mockito.any(UrlMultipleResponses.class));
+    }
+
+    @Test
+    public void testAddingAUserByNameFetchesOnlyThatUser() throws IntegrationException {
+        BlackDuckApiClient blackDuckApiClient = Mockito.mock(BlackDuckApiClient.class);
+        ArgumentCaptor<BlackDuckRequest> request = mockMatchingResponses(blackDuckApiClient, createUser("jsmith2", 1), createUser("JSmith", 2));
+        ApiDiscovery apiDiscovery = new ApiDiscovery(new HttpUrl(SERVER));
+        UserGroupService userGroupService = new UserGroupService(blackDuckApiClient, apiDiscovery, new BufferedIntLogger());
+        ProjectUsersService projectUsersService = new ProjectUsersService(blackDuckApiClient, apiDiscovery, new BufferedIntLogger(), userGroupService);
+
+        HttpUrl projectUsersUrl = new HttpUrl(SERVER + "/api/projects/1/users");
+        projectUsersService.addUserToProject(createProject(projectUsersUrl), "jsmith");
+        assertEquals("userName:jsmith", getQuery(request.getValue()));
+
+        ArgumentCaptor<AssignedUserRequest> assignedUserRequest = ArgumentCaptor.forClass(AssignedUserRequest.class);
+        Mockito.verify(blackDuckApiClient).post(Mockito.eq(projectUsersUrl), assignedUserRequest.capture());
+        assertEquals(SERVER + "/api/users/2", assignedUserRequest.getValue().getUser());
+        Mockito.verify(blackDuckApiClient, Mockito.never()).getAllResponses(Mockito.any(UrlMultipleResponses.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<BlackDuckRequest> mockMatchingResponses(BlackDuckApiClient blackDuckApiClient, BlackDuckResponse... candidates) throws IntegrationException {
+        ArgumentCaptor<BlackDuckRequest> request = ArgumentCaptor.forClass(BlackDuckRequest.class);
+        Mockito.when(blackDuckApiClient.getSomeMatchingResponses(request.capture(), Mockito.any(Predicate.class), Mockito.anyInt())).thenAnswer(invocation -> {
+            Predicate<BlackDuckResponse> predicate = invocation.getArgument(1);
+            int totalLimit = invocation.getArgument(2);
+            return Arrays.stream(candidates)
+                       .filter(predicate)
+                       .limit(totalLimit)
+                       .collect(Collectors.toList());
+        });
+        return request;
+    }
+
+    private String getQuery(BlackDuckRequest<?, ?> request) {
+        return request.getRequest().getQueryParameters().get(BlackDuckRequestBuilder.Q_PARAMETER).stream().findFirst().orElse(null);
+    }
+
+    private UserGroupView createGroup(String name) {
+        UserGroupView userGroupView = new UserGroupView();
+        userGroupView.setName(name);
+        return userGroupView;
+    }
+
+    private UserView createUser(String userName, int id) throws IntegrationException {
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setHref(new HttpUrl(SERVER + "/api/users/" + id));
+
+        UserView userView = new UserView();
+        userView.setMeta(resourceMetadata);
+        userView.setUserName(userName);
+        return userView;
+    }
+
+    private ProjectView createProject(HttpUrl projectUsersUrl) {
+        ResourceLink usersLink = new ResourceLink();
+        usersLink.setRel(ProjectView.USERS_LINK);
+        usersLink.setHref(projectUsersUrl);
+
+        ResourceMetadata resourceMetadata = new ResourceMetadata();
+        resourceMetadata.setLinks(Arrays.asList(usersLink));
+
+        ProjectView projectView = new ProjectView();
+        projectView.setMeta(resourceMetadata);
+        return projectView;
+    }
+
+}